@@ -0,0 +1,60 @@
+package com.example.studentmanagement.bench;
+
+import com.example.studentmanagement.domain.EnrollmentId;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Composite-key hashing and equality, as exercised by the persistence context and bulk-enroll de-duplication.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EnrollmentIdBenchmark {
+
+    private static final int KEYS = 100_000;
+
+    private EnrollmentId[] keys;
+    private EnrollmentId[] probes;
+    private Set<EnrollmentId> set;
+    private int i;
+
+    @Setup
+    public void setup() {
+        keys = new EnrollmentId[KEYS];
+        probes = new EnrollmentId[KEYS];
+        set = new HashSet<>(KEYS * 2);
+        for (int k = 0; k < KEYS; k++) {
+            keys[k] = new EnrollmentId((long) k / 8, (long) k % 8 + 1000);
+            probes[k] = new EnrollmentId((long) k / 8, (long) k % 8 + 1000);
+            set.add(keys[k]);
+        }
+    }
+
+    private int next() {
+        i = (i + 1) % KEYS;
+        return i;
+    }
+
+    @Benchmark
+    public int hash() {
+        return keys[next()].hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsDistinctInstances() {
+        int k = next();
+        return keys[k].equals(probes[k]);
+    }
+
+    @Benchmark
+    public boolean hashSetLookup() {
+        return set.contains(probes[next()]);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.studentmanagement.bench;
+
+import com.example.studentmanagement.domain.EnrollmentId;
+import com.example.studentmanagement.dto.StudentSetResult;
+import com.example.studentmanagement.repo.EnrollmentRepository;
+import com.example.studentmanagement.service.EnrollmentIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Set-algebra queries against {@link EnrollmentIndex} with 100k students spread over 500 courses
+ * (8 courses each), so the larger courses hold a few thousand students.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class EnrollmentIndexBenchmark {
+
+    private static final int STUDENTS = 100_000;
+    private static final int COURSES_PER_STUDENT = 8;
+    private static final int COURSE_COUNT = 500;
+
+    private EnrollmentIndex index;
+
+    @Setup
+    public void setup() {
+        EnrollmentRepository repo = (EnrollmentRepository) Proxy.newProxyInstance(
+                EnrollmentRepository.class.getClassLoader(),
+                new Class<?>[]{EnrollmentRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "streamAllIds" -> LongStream.rangeClosed(1, STUDENTS).boxed()
+                            .flatMap(s -> LongStream.range(0, COURSES_PER_STUDENT)
+                                    .mapToObj(k -> new EnrollmentId(s, (s * 31 + k * 7) % COURSE_COUNT + 1)));
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "GeneratedEnrollmentRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        index = new EnrollmentIndex(repo, new SimpleMeterRegistry());
+        index.rebuild();
+    }
+
+    @Benchmark
+    public long countAllOfTwoButNotThird() {
+        return index.query(List.of(1L, 8L), List.of(), List.of(15L), null, null, true).count();
+    }
+
+    @Benchmark
+    public StudentSetResult firstPageAnyOfTen() {
+        return index.query(List.of(), List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), List.of(), null, 50, false);
+    }
+}
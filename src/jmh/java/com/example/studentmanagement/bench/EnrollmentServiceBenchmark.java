@@ -0,0 +1,104 @@
+package com.example.studentmanagement.bench;
+
+import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.domain.Enrollment;
+import com.example.studentmanagement.domain.Grade;
+import com.example.studentmanagement.dto.StudentCourseDto;
+import com.example.studentmanagement.repo.CourseRepository;
+import com.example.studentmanagement.repo.EnrollmentRepository;
+import com.example.studentmanagement.repo.StudentRepository;
+import com.example.studentmanagement.repo.WaitlistRepository;
+import com.example.studentmanagement.service.CourseCache;
+import com.example.studentmanagement.service.EnrollmentIndex;
+import com.example.studentmanagement.service.EnrollmentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-student enrollment listing through {@link EnrollmentService} against an in-memory, student-indexed
+ * repository stand-in, so the numbers isolate service and mapping overhead from the database. The stand-in
+ * is a hash lookup, so table size does not affect the result and a single data set is used.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class EnrollmentServiceBenchmark {
+
+    private static final int COURSES_PER_STUDENT = 8;
+    private static final int COURSE_COUNT = 500;
+    private static final int ROWS = 100_000;
+
+    private EnrollmentService service;
+    private int studentCount;
+    private long next;
+
+    @Setup
+    public void setup() {
+        List<Course> courses = Fixtures.courses(COURSE_COUNT);
+        studentCount = ROWS / COURSES_PER_STUDENT;
+        Map<Long, List<Enrollment>> byStudent = new HashMap<>(studentCount * 2);
+        for (int r = 0; r < ROWS; r++) {
+            long studentId = r / COURSES_PER_STUDENT + 1;
+            Course course = courses.get((int) ((studentId * 31 + r) % COURSE_COUNT));
+            byStudent.computeIfAbsent(studentId, k -> new ArrayList<>(COURSES_PER_STUDENT))
+                    .add(Fixtures.enrollment(studentId, course, r % 3 == 0 ? null : Grade.A));
+        }
+        // The read paths under test never touch the caches; their repositories throw if that changes.
+        CourseRepository noCourses = unsupported(CourseRepository.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service = new EnrollmentService(enrollments(byStudent), unsupported(StudentRepository.class), noCourses,
+                new CourseCache(noCourses, 1, Duration.ofMinutes(1), registry),
+                unsupported(WaitlistRepository.class),
+                new EnrollmentIndex(unsupported(EnrollmentRepository.class), registry));
+    }
+
+    private long nextStudent() {
+        next = next % studentCount + 1;
+        return next;
+    }
+
+    @Benchmark
+    public List<Enrollment> listByStudentId() {
+        return service.listByStudentId(nextStudent());
+    }
+
+    @Benchmark
+    public List<StudentCourseDto> courseViewByStudentId() {
+        return service.courseViewByStudentId(nextStudent());
+    }
+
+    private static EnrollmentRepository enrollments(Map<Long, List<Enrollment>> byStudent) {
+        return (EnrollmentRepository) Proxy.newProxyInstance(
+                EnrollmentRepository.class.getClassLoader(),
+                new Class<?>[]{EnrollmentRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByStudentId" -> List.copyOf(byStudent.getOrDefault((Long) args[0], List.of()));
+                    case "findCourseViewByStudentId" -> byStudent.getOrDefault((Long) args[0], List.of()).stream()
+                            .map(e -> new StudentCourseDto(e.getCourse().getId(), e.getCourse().getCode(),
+                                    e.getCourse().getName(), e.getGrade()))
+                            .toList();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryEnrollmentRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static <T> T unsupported(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                }));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.studentmanagement.bench;
+
+import com.example.studentmanagement.exception.GlobalExceptionHandler;
+import com.example.studentmanagement.exception.NotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a NotFoundException into the JSON error body, the common 404 path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrorBodyBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private ObjectMapper mapper;
+    private MockHttpServletRequest request;
+    private NotFoundException ex;
+
+    @Setup
+    public void setup() {
+        handler = new GlobalExceptionHandler();
+        mapper = JsonMapper.builder().findAndAddModules().build();
+        request = new MockHttpServletRequest("GET", "/api/students/42");
+        ex = new NotFoundException("Student 42 not found");
+    }
+
+    @Benchmark
+    public Object buildBody() {
+        return handler.notFound(ex, request);
+    }
+
+    @Benchmark
+    public byte[] buildAndSerialize() throws Exception {
+        return mapper.writeValueAsBytes(handler.notFound(ex, request));
+    }
+
+    @Benchmark
+    public byte[] throwBuildAndSerialize() throws Exception {
+        try {
+            throw new NotFoundException("Student 42 not found");
+        } catch (NotFoundException thrown) {
+            return mapper.writeValueAsBytes(handler.notFound(thrown, request));
+        }
+    }
+}
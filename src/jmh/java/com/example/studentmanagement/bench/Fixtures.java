@@ -0,0 +1,71 @@
+package com.example.studentmanagement.bench;
+
+import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.domain.Enrollment;
+import com.example.studentmanagement.domain.EnrollmentId;
+import com.example.studentmanagement.domain.Grade;
+import com.example.studentmanagement.domain.Student;
+import com.example.studentmanagement.dto.StudentCourseDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic in-memory data shared by the benchmarks.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static Student student(long id) {
+        Student s = new Student();
+        s.setId(id);
+        s.setFirstName("First" + id);
+        s.setLastName("Last" + id);
+        s.setEmail("student" + id + "@example.com");
+        s.setBirthDate(LocalDate.of(1990, 1, 1).plusDays(id % 3650));
+        return s;
+    }
+
+    static Course course(long id) {
+        Course c = new Course();
+        c.setId(id);
+        c.setCode("CS" + (100 + id));
+        c.setName("Course " + id);
+        return c;
+    }
+
+    static Enrollment enrollment(long studentId, Course course, Grade grade) {
+        Enrollment e = new Enrollment();
+        e.setId(new EnrollmentId(studentId, course.getId()));
+        e.setCourse(course);
+        e.setGrade(grade);
+        return e;
+    }
+
+    static List<Student> students(int n) {
+        List<Student> out = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            out.add(student(i));
+        }
+        return out;
+    }
+
+    static List<Course> courses(int n) {
+        List<Course> out = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            out.add(course(i));
+        }
+        return out;
+    }
+
+    static List<StudentCourseDto> studentCourses(int n) {
+        List<StudentCourseDto> out = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            out.add(new StudentCourseDto((long) i, "CS" + (100 + i), "Course " + i, i % 3 == 0 ? null : Grade.A));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.studentmanagement.bench;
+
+import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.domain.Student;
+import com.example.studentmanagement.dto.StudentCourseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response-body serialization cost for the list endpoints, using a mapper configured like Spring Boot's.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private List<Student> students;
+    private List<Course> courses;
+    private List<StudentCourseDto> studentCourses;
+
+    @Setup
+    public void setup() {
+        mapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        students = Fixtures.students(size);
+        courses = Fixtures.courses(size);
+        studentCourses = Fixtures.studentCourses(size);
+    }
+
+    @Benchmark
+    public byte[] students() throws Exception {
+        return mapper.writeValueAsBytes(students);
+    }
+
+    @Benchmark
+    public byte[] courses() throws Exception {
+        return mapper.writeValueAsBytes(courses);
+    }
+
+    @Benchmark
+    public byte[] studentCourses() throws Exception {
+        return mapper.writeValueAsBytes(studentCourses);
+    }
+}
@@ -0,0 +1,400 @@
+package com.example.studentmanagement.load;
+
+import com.example.studentmanagement.StudentManagementApplication;
+import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.domain.Student;
+import com.example.studentmanagement.dto.BulkEnrollmentResult;
+import com.example.studentmanagement.dto.EnrollmentDto;
+import com.example.studentmanagement.repo.CourseRepository;
+import com.example.studentmanagement.repo.StudentRepository;
+import com.example.studentmanagement.service.EnrollmentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Boots the application on an in-memory H2 database in PostgreSQL mode, seeds it, and drives a weighted
+ * mix of HTTP traffic from a fixed number of closed-loop workers. Prints a per-operation summary and
+ * writes it as JSON to {@code load.output}.
+ * <p>
+ * {@code load.threadModes=platform,virtual} repeats the run once per request-thread mode, each against a fresh
+ * application and database, writes one result file per mode and prints a side-by-side summary.
+ * <p>
+ * Knobs are system properties (see {@code mvn -Ploadtest verify} in the README); any Spring property,
+ * e.g. {@code spring.threads.virtual.enabled}, may be passed the same way.
+ */
+public final class LoadTestHarness {
+
+    enum Op { LIST, GET, COURSES, BY_STUDENT, STUDENT_SET, ENROLL, GRADE, UNENROLL }
+
+    /** Mirrors EnrollmentService's per-request bulk limit. */
+    private static final int BULK_CHUNK = 10_000;
+    private static final String[] GRADES = {"A", "B", "C", "D", "F"};
+
+    private final int students = Integer.getInteger("load.students", 10_000);
+    private final int courses = Integer.getInteger("load.courses", 200);
+    private final int enrollmentsPerStudent = Integer.getInteger("load.enrollmentsPerStudent", 4);
+    private final int concurrency = Integer.getInteger("load.concurrency", 32);
+    private final Duration warmup = Duration.parse("PT" + System.getProperty("load.warmup", "5s"));
+    private final Duration duration = Duration.parse("PT" + System.getProperty("load.duration", "30s"));
+    private final Map<Op, Integer> mix = parseMix(System.getProperty("load.mix",
+            "LIST=15,GET=30,COURSES=10,BY_STUDENT=15,STUDENT_SET=5,ENROLL=10,GRADE=10,UNENROLL=5"));
+    private final Path output = Path.of(System.getProperty("load.output", "target/loadtest-result.json"));
+    private final List<String> threadModes = Arrays.stream(System.getProperty("load.threadModes",
+                    Boolean.getBoolean("spring.threads.virtual.enabled") ? "virtual" : "platform").split(","))
+            .map(String::trim).toList();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private String base;
+    private long[] studentIds;
+    private long[] courseIds;
+    private Op[] wheel;
+
+    public static void main(String[] args) throws Exception {
+        new LoadTestHarness().run(args);
+    }
+
+    private void run(String[] args) throws Exception {
+        Map<String, Stats> totals = new LinkedHashMap<>();
+        for (String mode : threadModes) {
+            boolean virtual = switch (mode) {
+                case "platform" -> false;
+                case "virtual" -> true;
+                default -> throw new IllegalArgumentException("load.threadModes accepts platform and virtual, got " + mode);
+            };
+            if (virtual && Runtime.version().feature() < 21) {
+                System.out.println("Skipping virtual thread mode: requires JDK 21+, running on " + Runtime.version());
+                continue;
+            }
+            totals.put(mode, run(mode, virtual, args));
+        }
+        if (totals.size() > 1) {
+            double seconds = duration.toMillis() / 1000.0;
+            System.out.printf("%n%-11s %9s %9s %9s %9s %9s %9s %7s %7s %7s%n",
+                    "mode", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "2xx", "4xx", "errors");
+            totals.forEach((mode, total) -> print(mode, total, seconds));
+        }
+    }
+
+    private Stats run(String mode, boolean virtual, String[] args) throws Exception {
+        System.out.printf("%n=== Thread mode: %s ===%n", mode);
+        SpringApplication app = new SpringApplication(StudentManagementApplication.class);
+        try (ConfigurableApplicationContext ctx = app.run(withOverrides(mode, virtual, args))) {
+            int port = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+            base = "http://localhost:" + port;
+            seed(ctx);
+            wheel = buildWheel(mix);
+
+            System.out.printf("Warmup %s, measuring %s with %d workers against %s%n", warmup, duration, concurrency, base);
+            drive(warmup);
+            Map<Op, Stats> results = drive(duration);
+            return report(mode, results);
+        }
+    }
+
+    /**
+     * Command-line arguments outrank application.properties, which points at PostgreSQL.
+     */
+    private static String[] withOverrides(String mode, boolean virtual, String[] args) {
+        List<String> all = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:loadtest-" + mode + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                        + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--server.port=" + System.getProperty("load.port", "0"),
+                "--management.server.port=-1",
+                "--spring.threads.virtual.enabled=" + virtual));
+        all.addAll(Arrays.asList(args));
+        return all.toArray(String[]::new);
+    }
+
+    private void seed(ConfigurableApplicationContext ctx) {
+        long started = System.nanoTime();
+        StudentRepository studentRepo = ctx.getBean(StudentRepository.class);
+        CourseRepository courseRepo = ctx.getBean(CourseRepository.class);
+        EnrollmentService enrollmentService = ctx.getBean(EnrollmentService.class);
+        JdbcTemplate jdbc = ctx.getBean(JdbcTemplate.class);
+
+        List<Course> newCourses = new ArrayList<>(courses);
+        for (int i = 0; i < courses; i++) {
+            Course c = new Course();
+            c.setCode("LT" + i);
+            c.setName("Load course " + i);
+            newCourses.add(c);
+        }
+        courseRepo.saveAll(newCourses);
+
+        List<Student> batch = new ArrayList<>(1000);
+        for (int i = 0; i < students; i++) {
+            Student s = new Student();
+            s.setFirstName("Load");
+            s.setLastName("Student" + i);
+            s.setEmail("load" + i + "@example.com");
+            s.setBirthDate(LocalDate.of(1995, 1, 1).plusDays(i % 3000));
+            batch.add(s);
+            if (batch.size() == 1000) {
+                studentRepo.insertAll(batch);
+                batch.clear();
+            }
+        }
+        studentRepo.insertAll(batch);
+
+        studentIds = jdbc.queryForList("select id from students order by id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        courseIds = jdbc.queryForList("select id from courses order by id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+
+        // Seed through the service so courses.enrollment_count and the in-memory EnrollmentIndex
+        // match the rows; a raw insert leaves both at zero and UNENROLL drives counts negative.
+        List<EnrollmentDto> pairs = new ArrayList<>(BULK_CHUNK);
+        int enrolled = 0;
+        for (int i = 0; i < studentIds.length; i++) {
+            for (int k = 0; k < enrollmentsPerStudent; k++) {
+                pairs.add(new EnrollmentDto(studentIds[i], courseFor(i, k), null));
+                if (pairs.size() == BULK_CHUNK) {
+                    enrolled += created(enrollmentService.bulkEnroll(pairs));
+                    pairs.clear();
+                }
+            }
+        }
+        enrolled += created(enrollmentService.bulkEnroll(pairs));
+        System.out.printf("Seeded %d students, %d courses, %d enrollments in %d ms%n",
+                studentIds.length, courseIds.length, enrolled, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static int created(List<BulkEnrollmentResult> results) {
+        return (int) results.stream().filter(r -> r.status() == BulkEnrollmentResult.Status.CREATED).count();
+    }
+
+    private Map<Op, Stats> drive(Duration length) throws Exception {
+        long deadline = System.nanoTime() + length.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<Map<Op, Stats>>> futures = new ArrayList<>(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            futures.add(workers.submit(() -> work(deadline)));
+        }
+        Map<Op, Stats> merged = new EnumMap<>(Op.class);
+        for (Future<Map<Op, Stats>> f : futures) {
+            f.get().forEach((op, s) -> merged.computeIfAbsent(op, k -> new Stats()).merge(s));
+        }
+        workers.shutdown();
+        return merged;
+    }
+
+    private Map<Op, Stats> work(long deadline) {
+        Map<Op, Stats> local = new EnumMap<>(Op.class);
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Op op = wheel[rnd.nextInt(wheel.length)];
+            HttpRequest request = request(op, rnd);
+            long t0 = System.nanoTime();
+            int status;
+            try {
+                status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException ex) {
+                status = -1;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            local.computeIfAbsent(op, k -> new Stats()).record(System.nanoTime() - t0, status);
+        }
+        return local;
+    }
+
+    /**
+     * The k-th seeded course of the i-th student. Grade and unenroll pick k within the seeded range so they
+     * mostly hit existing rows; enroll picks one slot beyond it so it mixes inserts with duplicates.
+     */
+    private long courseFor(int studentIndex, int k) {
+        return courseIds[(int) ((studentIndex * 7L + k * 31L) % courseIds.length)];
+    }
+
+    private HttpRequest request(Op op, ThreadLocalRandom rnd) {
+        int studentIndex = rnd.nextInt(studentIds.length);
+        long studentId = studentIds[studentIndex];
+        int slots = Math.max(1, enrollmentsPerStudent);
+        long courseId = courseFor(studentIndex, op == Op.ENROLL ? rnd.nextInt(slots + 1) : rnd.nextInt(slots));
+        return switch (op) {
+            case LIST -> get("/api/students?limit=50&after=" + studentId);
+            case GET -> get("/api/students/" + studentId);
+            case COURSES -> get("/api/courses");
+            case BY_STUDENT -> get("/api/enrollments/student/" + studentId);
+            case STUDENT_SET -> get("/api/enrollments/students?limit=50&allOf=" + courseFor(studentIndex, 0)
+                    + "&noneOf=" + courseFor(studentIndex, slots));
+            case ENROLL -> json("POST", "/api/enrollments", Map.of("studentId", studentId, "courseId", courseId));
+            case GRADE -> json("PATCH", "/api/enrollments/grade", Map.of("studentId", studentId, "courseId", courseId,
+                    "grade", GRADES[rnd.nextInt(GRADES.length)]));
+            case UNENROLL -> HttpRequest.newBuilder(URI.create(base + "/api/enrollments?studentId=" + studentId
+                    + "&courseId=" + courseId)).DELETE().build();
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(base + path)).GET().build();
+    }
+
+    private HttpRequest json(String method, String path, Map<String, Object> body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(base + path))
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private Stats report(String mode, Map<Op, Stats> results) throws IOException {
+        double seconds = duration.toMillis() / 1000.0;
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("concurrency", concurrency);
+        json.put("durationSeconds", seconds);
+        json.put("students", studentIds.length);
+        json.put("courses", courseIds.length);
+        json.put("threadMode", mode);
+
+        System.out.printf("%n%-11s %9s %9s %9s %9s %9s %9s %7s %7s %7s%n",
+                "op", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "2xx", "4xx", "errors");
+        Stats total = new Stats();
+        Map<String, Object> ops = new LinkedHashMap<>();
+        for (Map.Entry<Op, Stats> e : results.entrySet()) {
+            print(e.getKey().name(), e.getValue(), seconds);
+            ops.put(e.getKey().name(), e.getValue().summary(seconds));
+            total.merge(e.getValue());
+        }
+        print("TOTAL", total, seconds);
+        json.put("total", total.summary(seconds));
+        json.put("ops", ops);
+
+        Path file = output;
+        if (threadModes.size() > 1) {
+            String name = output.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            file = output.resolveSibling(dot < 0 ? name + "-" + mode : name.substring(0, dot) + "-" + mode + name.substring(dot));
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        mapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), json);
+        System.out.println("\nResults written to " + file);
+        return total;
+    }
+
+    private static void print(String name, Stats s, double seconds) {
+        System.out.printf("%-11s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %7d %7d %7d%n",
+                name, s.count, s.count / seconds, s.percentileMillis(0.50), s.percentileMillis(0.95),
+                s.percentileMillis(0.99), s.percentileMillis(1.0), s.ok, s.clientErrors, s.errors);
+    }
+
+    private static Map<Op, Integer> parseMix(String spec) {
+        Map<Op, Integer> out = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            out.put(Op.valueOf(kv[0].trim().toUpperCase()), Integer.parseInt(kv[1].trim()));
+        }
+        return out;
+    }
+
+    private static Op[] buildWheel(Map<Op, Integer> mix) {
+        List<Op> wheel = new ArrayList<>();
+        mix.forEach((op, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                wheel.add(op);
+            }
+        });
+        if (wheel.isEmpty()) {
+            throw new IllegalArgumentException("load.mix must give at least one operation a positive weight");
+        }
+        return wheel.toArray(Op[]::new);
+    }
+
+    /**
+     * Raw per-operation latencies; sorted once at report time. 5xx and transport failures count as errors,
+     * 4xx (duplicate enroll, unknown enrollment) are expected with random keys and reported separately.
+     */
+    private static final class Stats {
+        private long[] nanos = new long[1024];
+        private int count;
+        private long ok;
+        private long clientErrors;
+        private long errors;
+        private boolean sorted;
+
+        void record(long elapsed, int status) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = elapsed;
+            sorted = false;
+            if (status >= 200 && status < 400) {
+                ok++;
+            } else if (status >= 400 && status < 500) {
+                clientErrors++;
+            } else {
+                errors++;
+            }
+        }
+
+        void merge(Stats other) {
+            if (count + other.count > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+            }
+            System.arraycopy(other.nanos, 0, nanos, count, other.count);
+            count += other.count;
+            ok += other.ok;
+            clientErrors += other.clientErrors;
+            errors += other.errors;
+            sorted = false;
+        }
+
+        double percentileMillis(double p) {
+            if (count == 0) {
+                return 0;
+            }
+            if (!sorted) {
+                Arrays.sort(nanos, 0, count);
+                sorted = true;
+            }
+            int idx = (int) Math.min(count - 1, Math.max(0, Math.ceil(p * count) - 1));
+            return nanos[idx] / 1_000_000.0;
+        }
+
+        Map<String, Object> summary(double seconds) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("count", count);
+            m.put("throughput", count / seconds);
+            m.put("p50Millis", percentileMillis(0.50));
+            m.put("p95Millis", percentileMillis(0.95));
+            m.put("p99Millis", percentileMillis(0.99));
+            m.put("maxMillis", percentileMillis(1.0));
+            m.put("ok", ok);
+            m.put("clientErrors", clientErrors);
+            m.put("errors", errors);
+            return m;
+        }
+    }
+}
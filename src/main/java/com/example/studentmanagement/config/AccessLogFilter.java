@@ -0,0 +1,116 @@
+package com.example.studentmanagement.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One key=value line per API request on the {@code access} logger, sampled per route.
+ * Server errors and requests slower than the threshold are always written; sampled-out requests
+ * are counted in {@code access.log.sampled.out} so volumes can still be reconstructed.
+ */
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final Logger access = LoggerFactory.getLogger("access");
+
+    private final AccessLogProperties properties;
+    private final MeterRegistry registry;
+    private final Map<String, Counter> written = new ConcurrentHashMap<>();
+    private final Map<String, Counter> sampledOut = new ConcurrentHashMap<>();
+
+    public AccessLogFilter(AccessLogProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long started = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Completion(request, response, started));
+            } else {
+                log(request, response, System.nanoTime() - started);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, long elapsedNanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = request.getMethod() + " " + (pattern != null ? pattern : "UNMATCHED");
+        int status = response.getStatus();
+        if (shouldLog(route, status, elapsedNanos)) {
+            counter(written, "access.log.written", route).increment();
+            if (access.isInfoEnabled()) {
+                access.info("method={} route=\"{}\" uri={} status={} durationMs={}",
+                        request.getMethod(), pattern, request.getRequestURI(), status, elapsedNanos / 1_000_000);
+            }
+        } else {
+            counter(sampledOut, "access.log.sampled.out", route).increment();
+        }
+    }
+
+    private boolean shouldLog(String route, int status, long elapsedNanos) {
+        if (status >= 500 || elapsedNanos >= properties.getSlowThreshold().toNanos()) {
+            return true;
+        }
+        double rate = properties.getRoutes().getOrDefault(route, properties.getSampleRate());
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private Counter counter(Map<String, Counter> cache, String name, String route) {
+        return cache.computeIfAbsent(route, r -> Counter.builder(name).tag("route", r).register(registry));
+    }
+
+    /**
+     * Logs an async request (the NDJSON export) when it actually finishes, with its final status and duration;
+     * the container calls onComplete after a timeout or error as well.
+     */
+    private final class Completion implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long started;
+
+        Completion(HttpServletRequest request, HttpServletResponse response, long started) {
+            this.request = request;
+            this.response = response;
+            this.started = started;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            log(request, response, System.nanoTime() - started);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Access-log sampling. {@code routes} keys are {@code "METHOD /pattern"} as mapped by Spring MVC,
+ * e.g. {@code app.access-log.routes[GET /api/students/{id}]=0.01}.
+ */
+@ConfigurationProperties("app.access-log")
+public class AccessLogProperties {
+
+    private boolean enabled = true;
+    private double sampleRate = 1.0;
+    private Duration slowThreshold = Duration.ofSeconds(1);
+    private Map<String, Double> routes = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public void setSlowThreshold(Duration slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    public Map<String, Double> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Double> routes) {
+        this.routes = routes;
+    }
+}
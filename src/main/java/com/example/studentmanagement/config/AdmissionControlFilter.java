@@ -0,0 +1,130 @@
+package com.example.studentmanagement.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of API requests in flight at once. With virtual threads Tomcat no longer limits
+ * concurrency, so without this thousands of parked requests would queue inside Hikari instead.
+ * Requests that cannot get a permit within the timeout are answered 503 with Retry-After.
+ * <p>
+ * A request that goes async (e.g. the streaming {@code /export}) keeps its permit until the async
+ * cycle completes, errors or times out, not just until the container thread returns.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    private final Semaphore permits;
+    private final long timeoutNanos;
+    private final Counter rejected;
+
+    public AdmissionControlFilter(int maxConcurrent, Duration acquireTimeout, MeterRegistry registry) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be at least 1");
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.timeoutNanos = acquireTimeout.toNanos();
+        this.rejected = Counter.builder("http.admission.rejected")
+                .description("Requests refused because no admission permit became available")
+                .register(registry);
+        Gauge.builder("http.admission.available", permits, Semaphore::availablePermits)
+                .description("Free admission permits")
+                .register(registry);
+        Gauge.builder("http.admission.queued", permits, Semaphore::getQueueLength)
+                .description("Requests waiting for an admission permit")
+                .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            log.warn("Admission rejected {} {}", request.getMethod(), request.getRequestURI());
+            reject(request, response);
+            return;
+        }
+        Permit permit = new Permit();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(permit);
+            } else {
+                permit.release();
+            }
+        }
+    }
+
+    /**
+     * Returns the permit exactly once, whichever of the async callbacks fires first.
+     */
+    private final class Permit implements AsyncListener {
+
+        private final AtomicBoolean held = new AtomicBoolean(true);
+
+        void release() {
+            if (held.compareAndSet(true, false)) {
+                permits.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(timeoutNanos));
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("""
+                {"timestamp":"%s","status":503,"error":"Service Unavailable","message":"Server busy, retry later","path":"%s"}"""
+                .formatted(Instant.now(), request.getRequestURI().replace("\"", "")));
+    }
+}
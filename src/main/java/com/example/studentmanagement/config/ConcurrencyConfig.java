@@ -0,0 +1,32 @@
+package com.example.studentmanagement.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Admission control for the virtual-thread mode ({@code spring.threads.virtual.enabled=true}, JDK 21+).
+ * {@code app.admission.enabled} defaults to the same switch; permits default to the Hikari pool size.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true")
+public class ConcurrencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            @Value("${app.admission.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+            @Value("${app.admission.acquire-timeout:2s}") Duration acquireTimeout,
+            MeterRegistry registry) {
+        FilterRegistrationBean<AdmissionControlFilter> bean =
+                new FilterRegistrationBean<>(new AdmissionControlFilter(maxConcurrent, acquireTimeout, registry));
+        bean.addUrlPatterns("/api/*");
+        bean.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return bean;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.studentmanagement.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link AsyncAppender} that counts events it drops, either because the queue is full with
+ * {@code neverBlock} set or because it is above the discarding threshold. The count is approximate
+ * under contention; it is published as {@code logging.async.dropped}.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private static final AtomicLong DROPPED = new AtomicLong();
+
+    public static long droppedCount() {
+        return DROPPED.get();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        int remaining = getRemainingCapacity();
+        boolean dropped = remaining == 0 || (remaining < getDiscardingThreshold() && isDiscardable(event));
+        super.append(event);
+        if (dropped) {
+            DROPPED.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.studentmanagement.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(AccessLogProperties.class)
+public class LoggingConfig {
+
+    public LoggingConfig(MeterRegistry registry) {
+        FunctionCounter.builder("logging.async.dropped", CountingAsyncAppender.class, c -> CountingAsyncAppender.droppedCount())
+                .description("Log events dropped by the asynchronous appender")
+                .register(registry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.access-log.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<AccessLogFilter> accessLogFilter(AccessLogProperties properties, MeterRegistry registry) {
+        FilterRegistrationBean<AccessLogFilter> bean = new FilterRegistrationBean<>(new AccessLogFilter(properties, registry));
+        bean.addUrlPatterns("/api/*");
+        bean.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return bean;
+    }
+}
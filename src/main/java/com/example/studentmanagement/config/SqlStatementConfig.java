@@ -0,0 +1,45 @@
+package com.example.studentmanagement.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a {@link CountingDataSource} and counts statements per API request.
+ * Pool metrics and health still see the Hikari pool: Spring Boot unwraps {@code DelegatingDataSource}.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlStatementProperties.class)
+@ConditionalOnProperty(name = "app.sql-statements.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatementConfig {
+
+    @Bean
+    public static BeanPostProcessor countingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+                    return new CountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementFilter> sqlStatementFilter(SqlStatementProperties properties,
+                                                                         MeterRegistry registry) {
+        FilterRegistrationBean<SqlStatementFilter> bean =
+                new FilterRegistrationBean<>(new SqlStatementFilter(properties, registry));
+        bean.addUrlPatterns("/api/*");
+        bean.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return bean;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.studentmanagement.config;
+
+/**
+ * Counts JDBC statements prepared on the current thread while a {@link Scope} is open. Statements on
+ * threads without an open scope (schedulers, async streaming) are not counted anywhere.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    /**
+     * Starts counting on this thread. Scopes nest; a closed scope adds its count to the enclosing one.
+     */
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Count of the innermost open scope, or -1 when none is open.
+     */
+    public static int current() {
+        Scope scope = CURRENT.get();
+        return scope == null ? -1 : scope.count;
+    }
+
+    static void increment() {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.count++;
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private int count;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        @Override
+        public void close() {
+            if (CURRENT.get() != this) {
+                return;
+            }
+            if (parent != null) {
+                parent.count += count;
+                CURRENT.set(parent);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.studentmanagement.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts the JDBC statements each API request issues on its own thread. The count goes out in the
+ * {@value #HEADER} header as of the moment the response is committed (lazy loads while a large body is
+ * still being written come after it), and in full to {@code http.server.sql.statements} per route and to
+ * a WARN line above the threshold. Async streaming work runs on another thread and is not counted.
+ */
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-SQL-Statement-Count";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementFilter.class);
+
+    private final SqlStatementProperties properties;
+    private final MeterRegistry registry;
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public SqlStatementFilter(SqlStatementProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        int count;
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            try {
+                chain.doFilter(request, new CountHeaderResponse(response));
+            } finally {
+                count = scope.count();
+                if (!response.isCommitted()) {
+                    response.setIntHeader(HEADER, count);
+                }
+            }
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = request.getMethod() + " " + (pattern != null ? pattern : "UNMATCHED");
+        summary(route).record(count);
+        if (count > properties.getWarnThreshold()) {
+            log.warn("route=\"{}\" uri={} statements={} exceeds threshold={}",
+                    route, request.getRequestURI(), count, properties.getWarnThreshold());
+        }
+    }
+
+    private DistributionSummary summary(String route) {
+        return summaries.computeIfAbsent(route, r -> DistributionSummary.builder("http.server.sql.statements")
+                .description("JDBC statements prepared per request")
+                .baseUnit("statements")
+                .tag("route", r)
+                .register(registry));
+    }
+
+    /**
+     * Refreshes the header before every body write until the container commits the response.
+     */
+    private static final class CountHeaderResponse extends HttpServletResponseWrapper {
+
+        private ServletOutputStream out;
+
+        CountHeaderResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        private void stamp() {
+            if (!isCommitted()) {
+                setIntHeader(HEADER, SqlStatementCounter.current());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (out == null) {
+                ServletOutputStream target = super.getOutputStream();
+                out = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        stamp();
+                        target.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        stamp();
+                        target.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        stamp();
+                        target.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        stamp();
+                        target.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return target.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        target.setWriteListener(listener);
+                    }
+                };
+            }
+            return out;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            stamp();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            stamp();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            stamp();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            stamp();
+            super.sendError(sc);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Per-request JDBC statement counting. Requests issuing more than {@code warnThreshold} statements are
+ * logged at WARN, which is usually an N+1 pattern.
+ */
+@ConfigurationProperties("app.sql-statements")
+public class SqlStatementProperties {
+
+    private boolean enabled = true;
+    private int warnThreshold = 20;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getWarnThreshold() {
+        return warnThreshold;
+    }
+
+    public void setWarnThreshold(int warnThreshold) {
+        this.warnThreshold = warnThreshold;
+    }
+}
@@ -1,57 +1,178 @@
 package com.example.studentmanagement.controller;
 
 import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.dto.CourseEnrollmentCount;
+import com.example.studentmanagement.dto.CursorPage;
+import com.example.studentmanagement.dto.MultiGetResult;
+import com.example.studentmanagement.exception.BadRequestException;
+import com.example.studentmanagement.service.CatalogCache;
 import com.example.studentmanagement.service.CourseService;
 import jakarta.validation.Valid;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/courses")
 @CrossOrigin
 public class CourseController {
 
-    private static final Logger log = LoggerFactory.getLogger(CourseController.class);
-
     private final CourseService courseService;
+    private final CatalogCache catalogCache;
 
-    public CourseController(CourseService courseService) {
+    public CourseController(CourseService courseService, CatalogCache catalogCache) {
         this.courseService = courseService;
+        this.catalogCache = catalogCache;
     }
 
+    /**
+     * Served from pre-serialized bytes; gzip-capable clients get the pre-compressed variant under its own ETag.
+     */
     @GetMapping
-    public List<Course> list() {
-        log.info("GET /api/courses");
-        return courseService.list();
+    public ResponseEntity<byte[]> list(WebRequest request,
+                                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CatalogCache.Snapshot catalog = catalogCache.get();
+        boolean gzip = catalog.gzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = gzip ? catalog.gzipEtag() : catalog.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (catalog.truncated()) {
+            response.header(CursorPage.TRUNCATED_HEADER, "true");
+        }
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(catalog.gzip());
+        }
+        return response.body(catalog.json());
+    }
+
+    @GetMapping(params = {"limit", "!ids"})
+    public CursorPage<Course> page(@RequestParam(value = "after", required = false) Long after,
+                                   @RequestParam("limit") Integer limit) {
+        return courseService.page(after, limit);
+    }
+
+    /**
+     * {@code ?after=} alone pages with the default limit rather than falling through to the full list.
+     */
+    @GetMapping(params = {"after", "!limit", "!ids"})
+    public CursorPage<Course> pageAfter(@RequestParam("after") Long after) {
+        return courseService.page(after, null);
+    }
+
+    @GetMapping(params = "ids")
+    public MultiGetResult<Course> getAll(@RequestParam("ids") List<Long> ids,
+                                        @RequestParam(value = "after", required = false) Long after,
+                                        @RequestParam(value = "limit", required = false) Integer limit) {
+        rejectPaging(after, limit);
+        return courseService.getAll(ids);
+    }
+
+    /**
+     * Same as {@code GET ?ids=} for id lists too long for a query string.
+     */
+    @PostMapping("/lookup")
+    public MultiGetResult<Course> lookup(@RequestBody List<Long> ids) {
+        return courseService.getAll(ids);
+    }
+
+    /**
+     * Sparse fieldsets, e.g. {@code ?fields=code,name}; read from the database rather than the catalog snapshot.
+     */
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> list(@RequestParam("fields") String fields) {
+        return capped(courseService.list(fields));
+    }
+
+    @GetMapping(params = {"limit", "fields", "!ids"})
+    public CursorPage<Map<String, Object>> page(@RequestParam(value = "after", required = false) Long after,
+                                                @RequestParam("limit") Integer limit,
+                                                @RequestParam("fields") String fields) {
+        return courseService.page(after, limit, fields);
+    }
+
+    @GetMapping(params = {"after", "fields", "!limit", "!ids"})
+    public CursorPage<Map<String, Object>> pageAfter(@RequestParam("after") Long after,
+                                                     @RequestParam("fields") String fields) {
+        return courseService.page(after, null, fields);
+    }
+
+    @GetMapping(params = {"ids", "fields"})
+    public MultiGetResult<Map<String, Object>> getAll(@RequestParam("ids") List<Long> ids,
+                                                      @RequestParam(value = "after", required = false) Long after,
+                                                      @RequestParam(value = "limit", required = false) Integer limit,
+                                                      @RequestParam("fields") String fields) {
+        rejectPaging(after, limit);
+        return courseService.getAll(ids, fields);
+    }
+
+    @PostMapping(value = "/lookup", params = "fields")
+    public MultiGetResult<Map<String, Object>> lookup(@RequestBody List<Long> ids, @RequestParam("fields") String fields) {
+        return courseService.getAll(ids, fields);
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    public Map<String, Object> get(@PathVariable("id") Long id, @RequestParam("fields") String fields) {
+        return courseService.get(id, fields);
     }
 
     @GetMapping("/{id}")
     public Course get(@PathVariable("id") Long id) {
-        log.info("GET /api/courses/{}", id);
         return courseService.get(id);
     }
 
+    @GetMapping("/{id}/enrollment-count")
+    public CourseEnrollmentCount enrollmentCount(@PathVariable("id") Long id) {
+        return courseService.enrollmentCount(id);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public Course create(@RequestBody @Valid Course body) {
-        log.info("POST /api/courses code={}", body.getCode());
         return courseService.create(body);
     }
 
     @PutMapping("/{id}")
     public Course update(@PathVariable("id") Long id, @RequestBody @Valid Course body) {
-        log.info("PUT /api/courses/{} code={}", id, body.getCode());
         return courseService.update(id, body);
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable("id") Long id) {
-        log.info("DELETE /api/courses/{}", id);
         courseService.delete(id);
     }
+
+    /**
+     * Flags a list cut off at {@code CourseService.MAX_LIST_SIZE}, as the catalog snapshot does.
+     */
+    private static <T> ResponseEntity<List<T>> capped(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(CursorPage.TRUNCATED_HEADER, "true");
+        }
+        return response.body(page.items());
+    }
+
+    /**
+     * A multi-get returns exactly the requested ids, so cursor parameters are a client error rather than
+     * something to ignore.
+     */
+    private static void rejectPaging(Long after, Integer limit) {
+        if (after != null || limit != null) {
+            throw new BadRequestException("ids cannot be combined with after or limit");
+        }
+    }
 }
@@ -1,8 +1,14 @@
 package com.example.studentmanagement.controller;
 
 import com.example.studentmanagement.domain.Enrollment;
+import com.example.studentmanagement.dto.BulkEnrollmentResult;
+import com.example.studentmanagement.dto.CourseGradeDistribution;
 import com.example.studentmanagement.dto.EnrollmentDto;
+import com.example.studentmanagement.dto.SeatRequestResult;
 import com.example.studentmanagement.dto.StudentCourseDto;
+import com.example.studentmanagement.dto.StudentGpa;
+import com.example.studentmanagement.dto.StudentSetResult;
+import com.example.studentmanagement.dto.WaitlistEntryDto;
 import com.example.studentmanagement.service.EnrollmentService;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,30 +27,77 @@ public class EnrollmentController {
 
     @GetMapping("/student/{studentId}")
     public List<StudentCourseDto> byStudent(@PathVariable("studentId") Long studentId) {
-        return service.listByStudentId(studentId).stream()
-                .map(e -> new StudentCourseDto(
-                        e.getCourse().getId(),
-                        e.getCourse().getCode(),
-                        e.getCourse().getName(),
-                        e.getGrade()
-                ))
-                .toList();
+        return service.courseViewByStudentId(studentId);
+    }
+
+    /**
+     * Set algebra over course enrollments, e.g. {@code ?allOf=1,2&noneOf=3}; answered from the in-memory index.
+     */
+    @GetMapping("/students")
+    public StudentSetResult students(@RequestParam(name = "allOf", defaultValue = "") List<Long> allOf,
+                                     @RequestParam(name = "anyOf", defaultValue = "") List<Long> anyOf,
+                                     @RequestParam(name = "noneOf", defaultValue = "") List<Long> noneOf,
+                                     @RequestParam(name = "after", required = false) Long after,
+                                     @RequestParam(name = "limit", required = false) Integer limit,
+                                     @RequestParam(name = "countOnly", defaultValue = "false") boolean countOnly) {
+        return service.studentsMatching(allOf, anyOf, noneOf, after, limit, countOnly);
+    }
+
+    @GetMapping("/student/{studentId}/gpa")
+    public StudentGpa gpa(@PathVariable("studentId") Long studentId) {
+        return service.gpa(studentId);
+    }
+
+    @GetMapping("/course/{courseId}/grades")
+    public CourseGradeDistribution gradeDistribution(@PathVariable("courseId") Long courseId) {
+        return service.gradeDistribution(courseId);
     }
 
     @PostMapping
     public EnrollmentDto enroll(@RequestBody EnrollmentDto body) {
         Enrollment e = service.enroll(body.studentId(), body.courseId());
-        return new EnrollmentDto(
-                e.getId().getStudentId(),
-                e.getId().getCourseId(),
-                e.getGrade()
-        );
+        return toDto(e);
+    }
+
+    @PostMapping("/bulk")
+    public List<BulkEnrollmentResult> bulkEnroll(@RequestBody List<EnrollmentDto> body) {
+        return service.bulkEnroll(body);
+    }
+
+    @PostMapping("/bulk/course/{courseId}")
+    public List<BulkEnrollmentResult> bulkEnrollCourse(@PathVariable("courseId") Long courseId,
+                                                       @RequestBody List<Long> studentIds) {
+        return service.bulkEnroll(studentIds.stream()
+                .map(studentId -> new EnrollmentDto(studentId, courseId, null))
+                .toList());
+    }
+
+    @PostMapping("/waitlist")
+    public SeatRequestResult enrollOrWaitlist(@RequestBody EnrollmentDto body) {
+        return service.enrollOrWaitlist(body.studentId(), body.courseId());
+    }
+
+    @GetMapping("/waitlist/course/{courseId}")
+    public List<WaitlistEntryDto> waitlistByCourse(@PathVariable("courseId") Long courseId) {
+        return service.waitlistByCourseId(courseId);
+    }
+
+    @DeleteMapping("/waitlist")
+    public void leaveWaitlist(@RequestParam("studentId") Long studentId, @RequestParam("courseId") Long courseId) {
+        service.leaveWaitlist(studentId, courseId);
     }
 
     @PatchMapping("/grade")
     public EnrollmentDto setGrade(@RequestBody EnrollmentDto body) {
-        var e = service.setGrade(body.studentId(), body.courseId(), body.grade());
-        return new EnrollmentDto(e.getId().getStudentId(), e.getId().getCourseId(), e.getGrade());
+        return toDto(service.setGrade(body.studentId(), body.courseId(), body.grade()));
+    }
+
+    private static EnrollmentDto toDto(Enrollment e) {
+        return new EnrollmentDto(
+                e.getId().getStudentId(),
+                e.getId().getCourseId(),
+                e.getGrade() == null ? null : e.getGrade().label()
+        );
     }
 
     @DeleteMapping
@@ -3,77 +3,210 @@ package com.example.studentmanagement.controller;
 import com.example.studentmanagement.domain.Course;
 import com.example.studentmanagement.domain.Enrollment;
 import com.example.studentmanagement.domain.Student;
+import com.example.studentmanagement.dto.CursorPage;
+import com.example.studentmanagement.dto.MultiGetResult;
+import com.example.studentmanagement.dto.StudentDto;
+import com.example.studentmanagement.dto.StudentImportResult;
+import com.example.studentmanagement.exception.BadRequestException;
+import com.example.studentmanagement.service.StudentImportService;
 import com.example.studentmanagement.service.StudentService;
 import jakarta.validation.Valid;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/students")
 @CrossOrigin
 public class StudentController {
 
-    private static final Logger log = LoggerFactory.getLogger(StudentController.class);
-
     private final StudentService studentService;
+    private final StudentImportService importService;
 
-    public StudentController(StudentService studentService) {
+    public StudentController(StudentService studentService, StudentImportService importService) {
         this.studentService = studentService;
+        this.importService = importService;
     }
 
     @GetMapping
-    public List<Student> list() {
-        log.info("GET /api/students");
-        return studentService.list();
+    public ResponseEntity<List<Student>> list() {
+        return capped(studentService.list());
+    }
+
+    @GetMapping(params = {"limit", "!ids"})
+    public CursorPage<Student> page(@RequestParam(value = "after", required = false) Long after,
+                                    @RequestParam("limit") Integer limit) {
+        return studentService.page(after, limit);
+    }
+
+    /**
+     * {@code ?after=} alone pages with the default limit rather than falling through to the full list.
+     */
+    @GetMapping(params = {"after", "!limit", "!ids"})
+    public CursorPage<Student> pageAfter(@RequestParam("after") Long after) {
+        return studentService.page(after, null);
+    }
+
+    @GetMapping(params = "ids")
+    public MultiGetResult<Student> getAll(@RequestParam("ids") List<Long> ids,
+                                         @RequestParam(value = "after", required = false) Long after,
+                                         @RequestParam(value = "limit", required = false) Integer limit) {
+        rejectPaging(after, limit);
+        return studentService.getAll(ids);
+    }
+
+    /**
+     * Same as {@code GET ?ids=} for id lists too long for a query string.
+     */
+    @PostMapping("/lookup")
+    public MultiGetResult<Student> lookup(@RequestBody List<Long> ids) {
+        return studentService.getAll(ids);
+    }
+
+    /**
+     * Sparse fieldsets: {@code ?fields=id,firstName,lastName} on list, page, multi-get and get selects and
+     * returns only those columns (id always included); enrollments are never part of a sparse response.
+     */
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> list(@RequestParam("fields") String fields) {
+        return capped(studentService.list(fields));
+    }
+
+    @GetMapping(params = {"limit", "fields", "!ids"})
+    public CursorPage<Map<String, Object>> page(@RequestParam(value = "after", required = false) Long after,
+                                                @RequestParam("limit") Integer limit,
+                                                @RequestParam("fields") String fields) {
+        return studentService.page(after, limit, fields);
+    }
+
+    @GetMapping(params = {"after", "fields", "!limit", "!ids"})
+    public CursorPage<Map<String, Object>> pageAfter(@RequestParam("after") Long after,
+                                                     @RequestParam("fields") String fields) {
+        return studentService.page(after, null, fields);
     }
 
+    @GetMapping(params = {"ids", "fields"})
+    public MultiGetResult<Map<String, Object>> getAll(@RequestParam("ids") List<Long> ids,
+                                                      @RequestParam(value = "after", required = false) Long after,
+                                                      @RequestParam(value = "limit", required = false) Integer limit,
+                                                      @RequestParam("fields") String fields) {
+        rejectPaging(after, limit);
+        return studentService.getAll(ids, fields);
+    }
+
+    @PostMapping(value = "/lookup", params = "fields")
+    public MultiGetResult<Map<String, Object>> lookup(@RequestBody List<Long> ids, @RequestParam("fields") String fields) {
+        return studentService.getAll(ids, fields);
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    public Map<String, Object> get(@PathVariable("id") Long id, @RequestParam("fields") String fields) {
+        return studentService.get(id, fields);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = studentService::exportNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * The ETag covers only the student row, so the body is the row alone; enrollments change without touching
+     * students.updated_at and are served by {@code /{id}/courses}.
+     */
     @GetMapping("/{id}")
-    public Student get(@PathVariable("id") Long id) {
-        log.info("GET /api/students/{}", id);
-        return studentService.get(id);
+    public ResponseEntity<StudentDto> get(@PathVariable("id") Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(etag(id, studentService.lastModified(id)))) {
+            return null;
+        }
+        Student s = studentService.get(id);
+        return ResponseEntity.ok()
+                .eTag(etag(s.getId(), s.getUpdatedAt()))
+                .cacheControl(CacheControl.noCache())
+                .body(StudentDto.from(s));
+    }
+
+    private static String etag(Long id, Instant updatedAt) {
+        if (updatedAt == null) {
+            return "\"student-%d\"".formatted(id);
+        }
+        return "\"student-%d-%d.%d\"".formatted(id, updatedAt.getEpochSecond(), updatedAt.getNano());
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public Student create(@RequestBody @Valid Student body) {
-        log.info("POST /api/students email={}", body.getEmail());
         return studentService.create(body);
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public StudentImportResult importCsv(InputStream body,
+                                         @RequestParam(value = "batchSize", required = false) Integer batchSize)
+            throws IOException {
+        return importService.importCsv(body, batchSize);
+    }
+
     @PutMapping("/{id}")
     public Student update(@PathVariable("id") Long id, @RequestBody @Valid Student body) {
-        log.info("PUT /api/students/{} email={}", id, body.getEmail());
         return studentService.update(id, body);
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable("id") Long id) {
-        log.info("DELETE /api/students/{}", id);
         studentService.delete(id);
     }
 
     @GetMapping("/{id}/courses")
     public List<Course> listCourses(@PathVariable("id") Long id) {
-        log.info("GET /api/students/{}/courses", id);
         return studentService.listCourses(id);
     }
 
     @PostMapping("/{id}/courses")
     @ResponseStatus(HttpStatus.CREATED)
     public Enrollment enroll(@PathVariable("id") Long id, @RequestParam("courseId") Long courseId) {
-        log.info("POST /api/students/{}/courses?courseId={}", id, courseId);
         return studentService.enroll(id, courseId);
     }
 
     @DeleteMapping("/{id}/courses/{courseId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void unenroll(@PathVariable("id") Long id, @PathVariable("courseId") Long courseId) {
-        log.info("DELETE /api/students/{}/courses/{}", id, courseId);
         studentService.unenroll(id, courseId);
     }
+
+    /**
+     * Unparameterized lists stop at the service's cap; the header tells clients to switch to cursor paging
+     * rather than silently receiving a prefix of the table.
+     */
+    private static <T> ResponseEntity<List<T>> capped(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(CursorPage.TRUNCATED_HEADER, "true");
+        }
+        return response.body(page.items());
+    }
+
+    /**
+     * A multi-get returns exactly the requested ids, so cursor parameters are a client error rather than
+     * something to ignore.
+     */
+    private static void rejectPaging(Long after, Integer limit) {
+        if (after != null || limit != null) {
+            throw new BadRequestException("ids cannot be combined with after or limit");
+        }
+    }
 }
@@ -3,13 +3,19 @@ package com.example.studentmanagement.domain;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
 @Table(name = "courses")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course")
 public class Course {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -21,10 +27,30 @@ public class Course {
     @Column(nullable = false)
     private String name;
 
+    private Instant updatedAt = Instant.now();
+
+    /**
+     * Maintained only by bulk updates in the enrolling transaction (see CourseRepository), never by
+     * entity flushes, so a stale in-memory value can't overwrite it.
+     */
+    @Column(name = "enrollment_count", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private int enrollmentCount;
+
+    /**
+     * Seat limit; null means unlimited. Seats are claimed against enrollmentCount by a conditional update.
+     */
+    private Integer capacity;
+
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     private List<Enrollment> enrollments = new ArrayList<>();
 
+    @PreUpdate
+    void onUpdate() {
+        this.updatedAt = Instant.now();
+    }
+
     public Long getId() {
         return id;
     }
@@ -49,6 +75,30 @@ public class Course {
         this.name = name;
     }
 
+    public int getEnrollmentCount() {
+        return enrollmentCount;
+    }
+
+    public void setEnrollmentCount(int enrollmentCount) {
+        this.enrollmentCount = enrollmentCount;
+    }
+
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(Integer capacity) {
+        this.capacity = capacity;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public List<Enrollment> getEnrollments() {
         return enrollments;
     }
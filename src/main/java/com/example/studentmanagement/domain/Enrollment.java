@@ -4,8 +4,14 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 
+import java.math.BigDecimal;
+
 @Entity
-@Table(name = "enrollments")
+@Table(name = "enrollments",
+        indexes = {
+                @Index(name = "idx_enroll_student", columnList = "student_id"),
+                @Index(name = "idx_enroll_course", columnList = "course_id")
+        })
 public class Enrollment {
 
     @EmbeddedId
@@ -13,18 +19,26 @@ public class Enrollment {
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @MapsId("studentId")
-    @JoinColumn(name = "student_id")
+    @JoinColumn(name = "student_id", foreignKey = @ForeignKey(name = "fk_enroll_student"))
     @JsonIgnore
     private Student student;
 
     @ManyToOne(optional = false, fetch = FetchType.EAGER)
     @MapsId("courseId")
-    @JoinColumn(name = "course_id")
+    @JoinColumn(name = "course_id", foreignKey = @ForeignKey(name = "fk_enroll_course"))
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Course course;
 
     @Column(name = "grade")
-    private String grade;
+    @Convert(converter = GradeConverter.class)
+    private Grade grade;
+
+    /**
+     * Denormalized from grade so GPA is avg(grade_points) in SQL; only written through setGrade.
+     */
+    @Column(name = "grade_points", precision = 3, scale = 2)
+    @JsonIgnore
+    private BigDecimal gradePoints;
 
     public EnrollmentId getId() {
         return id;
@@ -50,11 +64,16 @@ public class Enrollment {
         this.course = course;
     }
 
-    public String getGrade() {
+    public Grade getGrade() {
         return grade;
     }
 
-    public void setGrade(String grade) {
+    public void setGrade(Grade grade) {
         this.grade = grade;
+        this.gradePoints = grade == null ? null : grade.points();
+    }
+
+    public BigDecimal getGradePoints() {
+        return gradePoints;
     }
 }
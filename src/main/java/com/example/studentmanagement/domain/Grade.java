@@ -0,0 +1,56 @@
+package com.example.studentmanagement.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Letter-grade scale with its grade points. Stored as the label in enrollments.grade and the points in
+ * enrollments.grade_points, so GPA and distribution reports are plain SQL aggregates.
+ */
+public enum Grade {
+    A("A", "4.00"),
+    A_MINUS("A-", "3.70"),
+    B_PLUS("B+", "3.30"),
+    B("B", "3.00"),
+    B_MINUS("B-", "2.70"),
+    C_PLUS("C+", "2.30"),
+    C("C", "2.00"),
+    C_MINUS("C-", "1.70"),
+    D_PLUS("D+", "1.30"),
+    D("D", "1.00"),
+    F("F", "0.00");
+
+    private final String label;
+    private final BigDecimal points;
+
+    Grade(String label, String points) {
+        this.label = label;
+        this.points = new BigDecimal(points);
+    }
+
+    @JsonValue
+    public String label() {
+        return label;
+    }
+
+    public BigDecimal points() {
+        return points;
+    }
+
+    /**
+     * Case-insensitive, surrounding whitespace ignored; throws IllegalArgumentException for anything off the scale.
+     */
+    @JsonCreator
+    public static Grade fromLabel(String label) {
+        String normalized = label.trim().toUpperCase(Locale.ROOT);
+        for (Grade g : values()) {
+            if (g.label.equals(normalized)) {
+                return g;
+            }
+        }
+        throw new IllegalArgumentException("Unknown grade: " + label);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.studentmanagement.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads a label that is off the scale (legacy free text the migration missed) as no grade rather than
+ * failing the whole load; the original text is kept in enrollments.legacy_grade.
+ */
+@Converter
+public class GradeConverter implements AttributeConverter<Grade, String> {
+
+    private static final Logger log = LoggerFactory.getLogger(GradeConverter.class);
+
+    @Override
+    public String convertToDatabaseColumn(Grade grade) {
+        return grade == null ? null : grade.label();
+    }
+
+    @Override
+    public Grade convertToEntityAttribute(String label) {
+        if (label == null) {
+            return null;
+        }
+        try {
+            return Grade.fromLabel(label);
+        } catch (IllegalArgumentException ex) {
+            log.warn("Ignoring unknown stored grade '{}'", label);
+            return null;
+        }
+    }
+}
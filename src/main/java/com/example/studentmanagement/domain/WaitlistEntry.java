@@ -0,0 +1,65 @@
+package com.example.studentmanagement.domain;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A student queued for a full course. Entries are promoted to enrollments in createdAt order when seats free up.
+ */
+@Entity
+@Table(name = "waitlist",
+        indexes = {
+                @Index(name = "idx_waitlist_course_created", columnList = "course_id, created_at"),
+                @Index(name = "idx_waitlist_student", columnList = "student_id")
+        })
+public class WaitlistEntry {
+
+    @EmbeddedId
+    private EnrollmentId id = new EnrollmentId();
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @MapsId("studentId")
+    @JoinColumn(name = "student_id", foreignKey = @ForeignKey(name = "fk_waitlist_student"))
+    private Student student;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @MapsId("courseId")
+    @JoinColumn(name = "course_id", foreignKey = @ForeignKey(name = "fk_waitlist_course"))
+    private Course course;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public EnrollmentId getId() {
+        return id;
+    }
+
+    public void setId(EnrollmentId id) {
+        this.id = id;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public void setStudent(Student student) {
+        this.student = student;
+    }
+
+    public Course getCourse() {
+        return course;
+    }
+
+    public void setCourse(Course course) {
+        this.course = course;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.studentmanagement.dto;
+
+public record BulkEnrollmentResult(Long studentId, Long courseId, Status status) {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        MISSING_STUDENT,
+        MISSING_COURSE,
+        COURSE_FULL
+    }
+}
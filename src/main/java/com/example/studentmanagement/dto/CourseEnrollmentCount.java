@@ -0,0 +1,4 @@
+package com.example.studentmanagement.dto;
+
+public record CourseEnrollmentCount(Long courseId, int enrolled) {
+}
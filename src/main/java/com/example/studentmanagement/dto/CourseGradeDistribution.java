@@ -0,0 +1,10 @@
+package com.example.studentmanagement.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Grade histogram for a course, best grade first; average is null when nothing is graded yet.
+ */
+public record CourseGradeDistribution(Long courseId, long graded, BigDecimal average, List<GradeCount> grades) {
+}
@@ -0,0 +1,6 @@
+package com.example.studentmanagement.dto;
+
+import com.example.studentmanagement.domain.Grade;
+
+public record GradeCount(Grade grade, Long count) {
+}
@@ -0,0 +1,9 @@
+package com.example.studentmanagement.dto;
+
+import java.util.List;
+
+/**
+ * Rows for a list of requested ids, in request order (duplicates collapsed), plus the ids that did not match.
+ */
+public record MultiGetResult<T>(List<T> items, List<Long> missing) {
+}
@@ -0,0 +1,9 @@
+package com.example.studentmanagement.dto;
+
+public record SeatRequestResult(Long studentId, Long courseId, Status status, Long waitlistPosition) {
+
+    public enum Status {
+        ENROLLED,
+        WAITLISTED
+    }
+}
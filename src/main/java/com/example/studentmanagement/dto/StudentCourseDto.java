@@ -1,4 +1,6 @@
 package com.example.studentmanagement.dto;
 
-public record StudentCourseDto(Long courseId, String code, String name, String grade) {
+import com.example.studentmanagement.domain.Grade;
+
+public record StudentCourseDto(Long courseId, String code, String name, Grade grade) {
 }
@@ -0,0 +1,15 @@
+package com.example.studentmanagement.dto;
+
+import com.example.studentmanagement.domain.Student;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public record StudentDto(Long id, String firstName, String lastName, String email,
+                         LocalDate birthDate, Instant createdAt, Instant updatedAt) {
+
+    public static StudentDto from(Student s) {
+        return new StudentDto(s.getId(), s.getFirstName(), s.getLastName(), s.getEmail(),
+                s.getBirthDate(), s.getCreatedAt(), s.getUpdatedAt());
+    }
+}
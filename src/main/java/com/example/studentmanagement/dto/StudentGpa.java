@@ -0,0 +1,18 @@
+package com.example.studentmanagement.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Unweighted GPA over the student's graded enrollments; gpa is null when nothing is graded yet.
+ */
+public record StudentGpa(Long studentId, BigDecimal gpa, Long gradedCourses) {
+
+    /**
+     * Used by the aggregate query, where avg() comes back as a double.
+     */
+    public StudentGpa(Long studentId, Double average, Long gradedCourses) {
+        this(studentId, average == null ? null : BigDecimal.valueOf(average).setScale(2, RoundingMode.HALF_UP),
+                gradedCourses);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.studentmanagement.dto;
+
+import java.util.List;
+
+public record StudentImportResult(int rows, int imported, int rejected, long elapsedMillis,
+                                  double rowsPerSecond, List<RowError> errors) {
+
+    public record RowError(int line, String email, String message) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.studentmanagement.dto;
+
+import java.util.List;
+
+/**
+ * Result of a course set-algebra query: the total match count plus one keyset page of student ids
+ * (empty when only the count was asked for).
+ */
+public record StudentSetResult(long count, List<Long> studentIds, Long nextCursor) {
+}
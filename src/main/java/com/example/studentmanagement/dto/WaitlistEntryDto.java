@@ -0,0 +1,6 @@
+package com.example.studentmanagement.dto;
+
+import java.time.Instant;
+
+public record WaitlistEntryDto(Long studentId, Instant createdAt) {
+}
@@ -1,10 +1,90 @@
 package com.example.studentmanagement.repo;
 
 import com.example.studentmanagement.domain.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CourseRepository extends JpaRepository<Course, Long> {
+    /**
+     * Result cached in the course-by-code query region; any write to courses invalidates it.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "course-by-code")
+    })
     Optional<Course> findByCode(String code);
+
+    List<Course> findAllByOrderByIdAsc(Limit limit);
+
+    List<Course> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    @Query("select c.id from Course c where c.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select c.code from Course c where c.id = :id")
+    Optional<String> findCodeById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from Course c where c.id = :id")
+    int deleteByKey(@Param("id") Long id);
+
+    @Query("select c.enrollmentCount from Course c where c.id = :id")
+    Optional<Integer> findEnrollmentCountById(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Course c set c.enrollmentCount = c.enrollmentCount + :delta, c.updatedAt = :now where c.id = :id")
+    int adjustEnrollmentCount(@Param("id") Long id, @Param("delta") int delta, @Param("now") Instant now);
+
+    /**
+     * Claims seats with a single conditional update: 1 when they were granted, 0 when the course is full
+     * (or missing). The row lock lasts only until the enrolling transaction commits, so registrations for
+     * different courses never wait on each other and those for the same course queue on one row.
+     */
+    @Modifying
+    @Query("update Course c set c.enrollmentCount = c.enrollmentCount + :seats, c.updatedAt = :now " +
+            "where c.id = :id and (c.capacity is null or c.enrollmentCount + :seats <= c.capacity)")
+    int claimSeats(@Param("id") Long id, @Param("seats") int seats, @Param("now") Instant now);
+
+    /**
+     * Seats still free, or null for an unlimited course; empty when the course does not exist.
+     */
+    @Query("select c.capacity - c.enrollmentCount from Course c where c.id = :id")
+    Optional<Integer> findFreeSeatsById(@Param("id") Long id);
+
+    /**
+     * Decrements every course the student is enrolled in; must run before the enrollments are deleted.
+     */
+    @Modifying
+    @Query("update Course c set c.enrollmentCount = c.enrollmentCount - 1, c.updatedAt = :now " +
+            "where c.id in (select e.id.courseId from Enrollment e where e.id.studentId = :studentId)")
+    int decrementEnrollmentCountsForStudent(@Param("studentId") Long studentId, @Param("now") Instant now);
+
+    /**
+     * Courses whose stored count differs from the enrollments table, in id order. A candidate list only:
+     * the answer can change before the rows are locked.
+     */
+    @Query("select c.id from Course c " +
+            "where c.enrollmentCount <> (select count(e) from Enrollment e where e.id.courseId = c.id) order by c.id")
+    List<Long> findDriftedIds();
+
+    /**
+     * Takes the course row lock that seat claims and count adjustments queue on, and returns the stored count.
+     */
+    @Query(value = "select enrollment_count from courses where id = :id for update", nativeQuery = true)
+    Optional<Integer> lockEnrollmentCountById(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Course c set c.enrollmentCount = :count, c.updatedAt = :now where c.id = :id")
+    int setEnrollmentCount(@Param("id") Long id, @Param("count") int count, @Param("now") Instant now);
 }
@@ -0,0 +1,17 @@
+package com.example.studentmanagement.repo;
+
+import com.example.studentmanagement.domain.EnrollmentId;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface EnrollmentBatchRepository {
+
+    /**
+     * Inserts the given enrollments with batched JDBC statements, bypassing the persistence context.
+     * Rows that already exist, or whose student or course is gone, are skipped rather than failing the
+     * batch; returns the ids actually inserted. Callers must hold the seat claims (course row locks) of
+     * every course involved.
+     */
+    Set<EnrollmentId> insertAll(Collection<EnrollmentId> ids);
+}
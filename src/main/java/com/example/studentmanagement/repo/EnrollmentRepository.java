@@ -3,14 +3,97 @@ package com.example.studentmanagement.repo;
 import com.example.studentmanagement.domain.Enrollment;
 import com.example.studentmanagement.domain.EnrollmentId;
 import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.dto.GradeCount;
+import com.example.studentmanagement.dto.StudentCourseDto;
+import com.example.studentmanagement.dto.StudentGpa;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface EnrollmentRepository extends JpaRepository<Enrollment, EnrollmentId> {
+public interface EnrollmentRepository extends JpaRepository<Enrollment, EnrollmentId>, EnrollmentBatchRepository {
 
     @Query("select e.course from Enrollment e join e.course c where e.id.studentId = :studentId")
     List<Course> findCoursesByStudentId(@Param("studentId") Long studentId);
+
+    @Query("select e from Enrollment e join fetch e.course where e.id.studentId = :studentId")
+    List<Enrollment> findByStudentId(@Param("studentId") Long studentId);
+
+    /**
+     * Read-only view of a student's courses projected straight into DTOs; no entities are hydrated.
+     */
+    @Query("select new com.example.studentmanagement.dto.StudentCourseDto(c.id, c.code, c.name, e.grade) " +
+            "from Enrollment e join e.course c where e.id.studentId = :studentId order by c.code")
+    List<StudentCourseDto> findCourseViewByStudentId(@Param("studentId") Long studentId);
+
+    @Query("select count(e) from Enrollment e where e.id.courseId = :courseId")
+    long countByCourseId(@Param("courseId") Long courseId);
+
+    /**
+     * One aggregate over the student's graded rows; empty when none are graded (or the student is unknown).
+     */
+    @Query("select new com.example.studentmanagement.dto.StudentGpa(e.id.studentId, avg(e.gradePoints), count(e)) " +
+            "from Enrollment e where e.id.studentId = :studentId and e.gradePoints is not null " +
+            "group by e.id.studentId")
+    Optional<StudentGpa> findGpaByStudentId(@Param("studentId") Long studentId);
+
+    /**
+     * Graded rows per grade for one course, in no particular order; ungraded enrollments are left out.
+     */
+    @Query("select new com.example.studentmanagement.dto.GradeCount(e.grade, count(e)) " +
+            "from Enrollment e where e.id.courseId = :courseId and e.grade is not null group by e.grade")
+    List<GradeCount> findGradeCountsByCourseId(@Param("courseId") Long courseId);
+
+    @Query("select e from Enrollment e join fetch e.course where e.id.courseId = :courseId")
+    List<Enrollment> findByCourseId(@Param("courseId") Long courseId);
+
+    /**
+     * Forward-only cursor over every (student, course) key, grouped by course. Must be consumed inside a
+     * transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select e.id from Enrollment e order by e.id.courseId, e.id.studentId")
+    Stream<EnrollmentId> streamAllIds();
+
+    @Query("select e.id from Enrollment e where e.id.studentId in :studentIds and e.id.courseId in :courseIds")
+    List<EnrollmentId> findExistingIds(@Param("studentIds") Collection<Long> studentIds,
+                                       @Param("courseIds") Collection<Long> courseIds);
+
+    /**
+     * Single-statement enroll: returns 1 when the row was inserted and 0 when the pair already exists.
+     * A missing student or course fails the fk_enroll_student / fk_enroll_course constraint.
+     * Declares the enrollments table as its only query space; otherwise Hibernate treats native DML as
+     * touching every table and clears the whole second-level cache.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "enrollments"))
+    @Query(value = "insert into enrollments (student_id, course_id) values (:studentId, :courseId) "
+            + "on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+
+    @Modifying
+    @Query("delete from Enrollment e where e.id.studentId = :studentId and e.id.courseId = :courseId")
+    int deleteByKey(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+
+    @Query("select e.id.courseId from Enrollment e where e.id.studentId = :studentId")
+    List<Long> findCourseIdsByStudentId(@Param("studentId") Long studentId);
+
+    @Modifying
+    @Query("delete from Enrollment e where e.id.studentId = :studentId")
+    int deleteByStudentId(@Param("studentId") Long studentId);
+
+    @Modifying
+    @Query("delete from Enrollment e where e.id.courseId = :courseId")
+    int deleteByCourseId(@Param("courseId") Long courseId);
 }
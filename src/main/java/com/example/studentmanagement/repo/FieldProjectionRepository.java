@@ -0,0 +1,67 @@
+package com.example.studentmanagement.repo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scalar projections for sparse fieldsets: selects only the named basic attributes, so neither the other
+ * columns nor associations are read, and nothing enters the persistence context.
+ */
+@Repository
+public class FieldProjectionRepository {
+
+    private final EntityManager entityManager;
+
+    public FieldProjectionRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Rows of {@code type} ordered by id, each as attribute name to value in {@code fields} order.
+     * {@code after} and {@code ids} narrow the rows when not null.
+     */
+    public List<Map<String, Object>> find(Class<?> type, List<String> fields, Long after, Collection<Long> ids, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> root = query.from(type);
+        List<Selection<?>> columns = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            columns.add(root.get(field).alias(field));
+        }
+        Path<Long> id = root.get("id");
+        List<Predicate> where = new ArrayList<>(2);
+        if (after != null) {
+            where.add(cb.greaterThan(id, after));
+        }
+        if (ids != null) {
+            where.add(id.in(ids));
+        }
+        query.multiselect(columns)
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.asc(id));
+        List<Tuple> tuples = entityManager.createQuery(query).setMaxResults(limit).getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>(fields.size() * 2);
+            for (TupleElement<?> element : tuple.getElements()) {
+                row.put(element.getAlias(), tuple.get(element));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
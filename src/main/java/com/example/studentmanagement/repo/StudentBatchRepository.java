@@ -0,0 +1,15 @@
+package com.example.studentmanagement.repo;
+
+import com.example.studentmanagement.domain.Student;
+
+import java.util.Collection;
+
+public interface StudentBatchRepository {
+
+    /**
+     * Inserts new students with batched JDBC statements, bypassing the persistence context.
+     * Ids are left to the database, so the passed entities are not updated with them.
+     * Called outside a transaction, the batch commits on its own and fails as a whole.
+     */
+    int insertAll(Collection<Student> rows);
+}
@@ -0,0 +1,41 @@
+package com.example.studentmanagement.repo;
+
+import com.example.studentmanagement.domain.Student;
+import jakarta.transaction.Transactional;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+
+public class StudentBatchRepositoryImpl implements StudentBatchRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public StudentBatchRepositoryImpl(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Timestamps are bound as UTC offset date-times, as Hibernate binds Instant with hibernate.jdbc.time_zone=UTC,
+     * so imported rows read back the same instants as rows written through JPA whatever the JVM's default zone.
+     */
+    @Override
+    @Transactional
+    public int insertAll(Collection<Student> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        jdbc.batchUpdate("insert into students (first_name, last_name, email, birth_date, created_at, updated_at) "
+                        + "values (?, ?, ?, ?, ?, ?)",
+                rows, rows.size(), (ps, s) -> {
+                    ps.setString(1, s.getFirstName());
+                    ps.setString(2, s.getLastName());
+                    ps.setString(3, s.getEmail());
+                    ps.setObject(4, s.getBirthDate());
+                    ps.setObject(5, OffsetDateTime.ofInstant(s.getCreatedAt(), ZoneOffset.UTC));
+                    ps.setObject(6, OffsetDateTime.ofInstant(s.getUpdatedAt(), ZoneOffset.UTC));
+                });
+        return rows.size();
+    }
+}
@@ -1,10 +1,49 @@
 package com.example.studentmanagement.repo;
 
 import com.example.studentmanagement.domain.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, StudentBatchRepository {
     Optional<Student> findByEmail(String email);
+
+    @Query("select s.updatedAt from Student s where s.id = :id")
+    Optional<Instant> findUpdatedAtById(@Param("id") Long id);
+
+    List<Student> findAllByOrderByIdAsc(Limit limit);
+
+    List<Student> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    /**
+     * Forward-only, read-only cursor over all students. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select s from Student s order by s.id")
+    Stream<Student> streamAll();
+
+    @Query("select s.id from Student s where s.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select s.email from Student s where s.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Modifying
+    @Query("delete from Student s where s.id = :id")
+    int deleteByKey(@Param("id") Long id);
 }
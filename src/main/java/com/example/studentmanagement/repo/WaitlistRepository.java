@@ -0,0 +1,58 @@
+package com.example.studentmanagement.repo;
+
+import com.example.studentmanagement.domain.EnrollmentId;
+import com.example.studentmanagement.domain.WaitlistEntry;
+import com.example.studentmanagement.dto.WaitlistEntryDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, EnrollmentId> {
+
+    /**
+     * Returns 1 when the student was queued and 0 when already on the list.
+     * A missing student or course fails the fk_waitlist_student / fk_waitlist_course constraint.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "waitlist"))
+    @Query(value = "insert into waitlist (student_id, course_id, created_at) values (:studentId, :courseId, :now) "
+            + "on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("studentId") Long studentId, @Param("courseId") Long courseId,
+                       @Param("now") Instant now);
+
+    @Query("select w.id.studentId from WaitlistEntry w where w.id.courseId = :courseId " +
+            "order by w.createdAt, w.id.studentId")
+    List<Long> findNextStudentIds(@Param("courseId") Long courseId, Limit limit);
+
+    @Query("select new com.example.studentmanagement.dto.WaitlistEntryDto(w.id.studentId, w.createdAt) " +
+            "from WaitlistEntry w where w.id.courseId = :courseId order by w.createdAt, w.id.studentId")
+    List<WaitlistEntryDto> findViewByCourseId(@Param("courseId") Long courseId);
+
+    /**
+     * 1-based position of the student in the course's queue, 0 when not queued.
+     */
+    @Query("select count(w) from WaitlistEntry w, WaitlistEntry me " +
+            "where me.id.courseId = :courseId and me.id.studentId = :studentId and w.id.courseId = :courseId " +
+            "and (w.createdAt < me.createdAt or (w.createdAt = me.createdAt and w.id.studentId <= me.id.studentId))")
+    long findPosition(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.id.studentId = :studentId and w.id.courseId = :courseId")
+    int deleteByKey(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.id.studentId = :studentId")
+    int deleteByStudentId(@Param("studentId") Long studentId);
+
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.id.courseId = :courseId")
+    int deleteByCourseId(@Param("courseId") Long courseId);
+}
@@ -0,0 +1,67 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.dto.MultiGetResult;
+import com.example.studentmanagement.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+final class Batches {
+
+    /**
+     * Upper bound for IN-list sizes; keeps bind-parameter counts well under driver limits.
+     */
+    static final int IN_LIST_CHUNK = 1000;
+
+    private Batches() {
+    }
+
+    static <T> List<List<T>> partition(Collection<T> items, int size) {
+        List<T> all = new ArrayList<>(items);
+        List<List<T>> chunks = new ArrayList<>((all.size() + size - 1) / size);
+        for (int i = 0; i < all.size(); i += size) {
+            chunks.add(all.subList(i, Math.min(i + size, all.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Loads rows by id with one IN-list query per {@link #IN_LIST_CHUNK} ids and lays them out in request order.
+     */
+    static <T> MultiGetResult<T> getAll(List<Long> ids, int max,
+                                        Function<List<Long>, List<T>> load, Function<T, Long> idOf) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequestException("ids must not be empty");
+        }
+        Set<Long> wanted = new LinkedHashSet<>(ids);
+        if (wanted.contains(null)) {
+            throw new BadRequestException("ids must not contain null");
+        }
+        if (wanted.size() > max) {
+            throw new BadRequestException("At most %d ids per request".formatted(max));
+        }
+        Map<Long, T> found = new HashMap<>(wanted.size() * 2);
+        for (List<Long> chunk : partition(wanted, IN_LIST_CHUNK)) {
+            for (T row : load.apply(chunk)) {
+                found.put(idOf.apply(row), row);
+            }
+        }
+        List<T> items = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : wanted) {
+            T row = found.get(id);
+            if (row != null) {
+                items.add(row);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new MultiGetResult<>(items, missing);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.repo.CourseRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds the course catalog ({@code GET /api/courses}) as ready-to-send JSON bytes, optionally also gzipped,
+ * together with its ETag. A hit does no database or Jackson work. {@link CourseService} invalidates on every
+ * course mutation; seat-count changes from enrollments do not invalidate, so the TTL bounds both their staleness
+ * and that of changes made by other instances.
+ */
+@Component
+public class CatalogCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogCache.class);
+
+    /** {@code truncated} is set when the catalog has more than {@link CourseService#MAX_LIST_SIZE} courses. */
+    public record Snapshot(String etag, byte[] json, byte[] gzip, boolean truncated, long expiresAtNanos) {
+
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+    }
+
+    private final CourseRepository courses;
+    private final ObjectMapper mapper;
+    private final long ttlNanos;
+    private final boolean gzip;
+    private final Counter hits;
+    private final Counter misses;
+    private final AtomicLong generation = new AtomicLong();
+    // Not a monitor: the rebuild does JDBC I/O, which would pin a virtual thread's carrier inside synchronized.
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Snapshot current;
+
+    public CatalogCache(CourseRepository courses,
+                        ObjectMapper mapper,
+                        @Value("${app.catalog-cache.ttl:30s}") Duration ttl,
+                        @Value("${app.catalog-cache.gzip:true}") boolean gzip,
+                        MeterRegistry registry) {
+        this.courses = courses;
+        this.mapper = mapper;
+        this.ttlNanos = ttl.toNanos();
+        this.gzip = gzip;
+        this.hits = Counter.builder("catalog.cache").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("catalog.cache").tag("result", "miss").register(registry);
+    }
+
+    public Snapshot get() {
+        Snapshot s = current;
+        if (s != null && System.nanoTime() - s.expiresAtNanos() < 0) {
+            hits.increment();
+            return s;
+        }
+        return rebuild();
+    }
+
+    private Snapshot rebuild() {
+        rebuildLock.lock();
+        try {
+            Snapshot s = current;
+            if (s != null && System.nanoTime() - s.expiresAtNanos() < 0) {
+                hits.increment();
+                return s;
+            }
+            return load();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Snapshot load() {
+        misses.increment();
+        long gen = generation.get();
+        List<Course> list = courses.findAllByOrderByIdAsc(Limit.of(CourseService.MAX_LIST_SIZE + 1));
+        boolean truncated = list.size() > CourseService.MAX_LIST_SIZE;
+        if (truncated) {
+            list = list.subList(0, CourseService.MAX_LIST_SIZE);
+        }
+        // Fingerprint the rows actually served; a separate version query could see a different commit.
+        String etag = etag(list.size(), list.stream()
+                .map(Course::getUpdatedAt).filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(null));
+        byte[] json;
+        try {
+            json = mapper.writeValueAsBytes(list);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize course catalog", ex);
+        }
+        Snapshot built = new Snapshot(etag, json, gzip ? gzip(json) : null, truncated,
+                System.nanoTime() + ttlNanos);
+        if (generation.get() == gen) {
+            current = built;
+        }
+        log.debug("Rebuilt course catalog etag={} bytes={}", built.etag(), json.length);
+        return built;
+    }
+
+    /**
+     * Drops the snapshot now and again after the surrounding transaction commits; a rebuild that raced
+     * with the mutation is discarded rather than cached.
+     */
+    public void invalidate() {
+        doInvalidate();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doInvalidate();
+                }
+            });
+        }
+    }
+
+    private void doInvalidate() {
+        generation.incrementAndGet();
+        current = null;
+    }
+
+    /** Any insert, update or delete of a served row changes the row count or the latest update time. */
+    private static String etag(int count, Instant lastUpdated) {
+        long seconds = lastUpdated == null ? 0 : lastUpdated.getEpochSecond();
+        int nanos = lastUpdated == null ? 0 : lastUpdated.getNano();
+        return "\"courses-%d-%d.%d\"".formatted(count, seconds, nanos);
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+}
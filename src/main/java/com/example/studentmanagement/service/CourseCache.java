@@ -0,0 +1,103 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.repo.CourseRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Bounded, TTL-evicting read-through cache of {@link Course} values keyed by id and by code.
+ * Absent codes are cached too, so uniqueness checks for new codes are usually answered from memory.
+ * {@link CourseService} evicts affected keys on every mutation; other nodes converge within the TTL.
+ * <p>
+ * Loads go through the caller's persistence context (open-in-view keeps one per request), so what is
+ * cached is a plain copy of the loaded row, never the managed entity itself. Cached instances are shared
+ * and must be treated as read-only.
+ */
+@Component
+public class CourseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseCache.class);
+
+    private final CourseRepository courses;
+    private final Cache<Long, Course> byId;
+    private final Cache<String, Optional<Course>> byCode;
+
+    public CourseCache(CourseRepository courses,
+                       @Value("${app.course-cache.maximum-size:10000}") long maximumSize,
+                       @Value("${app.course-cache.ttl:10m}") Duration ttl,
+                       MeterRegistry registry) {
+        this.courses = courses;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.byCode = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, byId, "courses.byId");
+        CaffeineCacheMetrics.monitor(registry, byCode, "courses.byCode");
+    }
+
+    public Optional<Course> findById(Long id) {
+        return Optional.ofNullable(byId.get(id, key -> courses.findById(key).map(CourseCache::copyOf).orElse(null)));
+    }
+
+    public Optional<Course> findByCode(String code) {
+        return byCode.get(code, key -> courses.findByCode(key).map(CourseCache::copyOf));
+    }
+
+    /**
+     * Column state only; the enrollments collection is left empty rather than shared with the session.
+     */
+    private static Course copyOf(Course managed) {
+        Course c = new Course();
+        c.setId(managed.getId());
+        c.setCode(managed.getCode());
+        c.setName(managed.getName());
+        c.setUpdatedAt(managed.getUpdatedAt());
+        c.setEnrollmentCount(managed.getEnrollmentCount());
+        c.setCapacity(managed.getCapacity());
+        return c;
+    }
+
+    /**
+     * Evicts now and again after the surrounding transaction commits, so a concurrent reader cannot
+     * re-cache the pre-commit state.
+     */
+    public void evict(Long id, String... codes) {
+        doEvict(id, codes);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvict(id, codes);
+                }
+            });
+        }
+    }
+
+    private void doEvict(Long id, String... codes) {
+        log.debug("Evict course id={} codes={}", id, codes);
+        if (id != null) {
+            byId.invalidate(id);
+        }
+        Stream.of(codes).filter(Objects::nonNull).forEach(byCode::invalidate);
+    }
+}
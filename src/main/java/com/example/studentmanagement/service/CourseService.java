@@ -1,32 +1,127 @@
 package com.example.studentmanagement.service;
 
 import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.dto.CourseEnrollmentCount;
+import com.example.studentmanagement.dto.CursorPage;
+import com.example.studentmanagement.dto.MultiGetResult;
 import com.example.studentmanagement.exception.BadRequestException;
 import com.example.studentmanagement.exception.NotFoundException;
 import com.example.studentmanagement.repo.CourseRepository;
+import com.example.studentmanagement.repo.EnrollmentRepository;
+import com.example.studentmanagement.repo.FieldProjectionRepository;
+import com.example.studentmanagement.repo.WaitlistRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
+@Timed("app.service")
 public class CourseService {
     private static final Logger log = LoggerFactory.getLogger(CourseService.class);
+    static final int MAX_LIST_SIZE = 1000;
+    static final List<String> FIELDS = List.of("id", "code", "name", "capacity", "enrollmentCount", "updatedAt");
     private final CourseRepository courseRepository;
+    private final CourseCache courseCache;
+    private final EnrollmentRepository enrollments;
+    private final CatalogCache catalogCache;
+    private final WaitlistRepository waitlist;
+    private final EnrollmentService enrollmentService;
+    private final EnrollmentIndex index;
+    private final FieldProjectionRepository projections;
 
-    public CourseService(CourseRepository courses) {
+    public CourseService(CourseRepository courses,
+                         CourseCache courseCache,
+                         EnrollmentRepository enrollments,
+                         CatalogCache catalogCache,
+                         WaitlistRepository waitlist,
+                         EnrollmentService enrollmentService,
+                         EnrollmentIndex index,
+                         FieldProjectionRepository projections) {
         this.courseRepository = courses;
+        this.courseCache = courseCache;
+        this.enrollments = enrollments;
+        this.catalogCache = catalogCache;
+        this.waitlist = waitlist;
+        this.enrollmentService = enrollmentService;
+        this.index = index;
+        this.projections = projections;
     }
 
-    public List<Course> list() {
-        log.debug("Listing all courses");
-        return courseRepository.findAll();
+    /**
+     * The first {@link #MAX_LIST_SIZE} courses; {@code nextCursor} is set when there are more.
+     */
+    public CursorPage<Course> list() {
+        log.debug("Listing courses (capped at {})", MAX_LIST_SIZE);
+        List<Course> rows = courseRepository.findAllByOrderByIdAsc(Limit.of(MAX_LIST_SIZE + 1));
+        return CursorPage.of(rows, MAX_LIST_SIZE, Course::getId);
+    }
+
+    public CursorPage<Course> page(Long after, Integer limit) {
+        int size = CursorPage.clampLimit(limit);
+        log.debug("Paging courses after={} limit={}", after, size);
+        List<Course> rows = after == null
+                ? courseRepository.findAllByOrderByIdAsc(Limit.of(size + 1))
+                : courseRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size + 1));
+        return CursorPage.of(rows, size, Course::getId);
+    }
+
+    public MultiGetResult<Course> getAll(List<Long> ids) {
+        log.debug("Fetching {} courses by id", ids == null ? 0 : ids.size());
+        return Batches.getAll(ids, MAX_LIST_SIZE, courseRepository::findAllById, Course::getId);
+    }
+
+    /**
+     * Sparse variants of list, page, get and getAll: only {@code fields} (plus id) are selected and returned.
+     * They read the database directly, bypassing the catalog and course caches.
+     */
+    public CursorPage<Map<String, Object>> list(String fields) {
+        List<Map<String, Object>> rows =
+                projections.find(Course.class, SparseFields.parse(fields, FIELDS), null, null, MAX_LIST_SIZE + 1);
+        return CursorPage.of(rows, MAX_LIST_SIZE, SparseFields::id);
+    }
+
+    public CursorPage<Map<String, Object>> page(Long after, Integer limit, String fields) {
+        int size = CursorPage.clampLimit(limit);
+        List<String> selected = SparseFields.parse(fields, FIELDS);
+        log.debug("Paging courses after={} limit={} fields={}", after, size, selected);
+        return CursorPage.of(projections.find(Course.class, selected, after, null, size + 1), size, SparseFields::id);
+    }
+
+    public Map<String, Object> get(Long id, String fields) {
+        List<Map<String, Object>> rows =
+                projections.find(Course.class, SparseFields.parse(fields, FIELDS), null, List.of(id), 1);
+        if (rows.isEmpty()) {
+            throw new NotFoundException("Course %d not found".formatted(id));
+        }
+        return rows.get(0);
+    }
+
+    public MultiGetResult<Map<String, Object>> getAll(List<Long> ids, String fields) {
+        List<String> selected = SparseFields.parse(fields, FIELDS);
+        return Batches.getAll(ids, MAX_LIST_SIZE,
+                chunk -> projections.find(Course.class, selected, null, chunk, chunk.size()), SparseFields::id);
     }
 
     public Course get(Long id) {
         log.debug("Fetching course id={}", id);
+        return courseCache.findById(id)
+                .orElseThrow(() -> new NotFoundException("Course %d not found".formatted(id)));
+    }
+
+    public CourseEnrollmentCount enrollmentCount(Long id) {
+        return courseRepository.findEnrollmentCountById(id)
+                .map(count -> new CourseEnrollmentCount(id, count))
+                .orElseThrow(() -> new NotFoundException("Course %d not found".formatted(id)));
+    }
+
+    private Course load(Long id) {
         return courseRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Course %d not found".formatted(id)));
     }
@@ -34,34 +129,67 @@ public class CourseService {
     @Transactional
     public Course create(Course body) {
         log.info("Create course code={}", body.getCode());
-        courseRepository.findByCode(body.getCode())
+        courseCache.findByCode(body.getCode())
                 .ifPresent(x -> {
                     throw new BadRequestException("Code already exists");
                 });
+        validateCapacity(body.getCapacity());
         Course c = new Course();
         c.setCode(body.getCode());
         c.setName(body.getName());
-        return courseRepository.save(c);
+        c.setCapacity(body.getCapacity());
+        Course saved = courseRepository.save(c);
+        courseCache.evict(saved.getId(), saved.getCode());
+        catalogCache.invalidate();
+        return saved;
     }
 
     @Transactional
     public Course update(Long id, Course body) {
         log.info("Update course id={} code={}", id, body.getCode());
-        Course c = get(id);
-        if (!c.getCode().equals(body.getCode())) {
-            courseRepository.findByCode(body.getCode())
+        Course c = load(id);
+        String oldCode = c.getCode();
+        if (!oldCode.equals(body.getCode())) {
+            courseCache.findByCode(body.getCode())
                     .ifPresent(x -> {
                         throw new BadRequestException("Code already exists");
                     });
         }
+        validateCapacity(body.getCapacity());
+        boolean capacityChanged = !Objects.equals(c.getCapacity(), body.getCapacity());
         c.setCode(body.getCode());
         c.setName(body.getName());
+        c.setCapacity(body.getCapacity());
+        if (capacityChanged) {
+            // flushes the new capacity first (auto flush before the bulk seat claims), then fills new seats
+            enrollmentService.fillFromWaitlist(id);
+        }
+        courseCache.evict(id, oldCode, c.getCode());
+        catalogCache.invalidate();
         return c;
     }
 
+    private static void validateCapacity(Integer capacity) {
+        if (capacity != null && capacity < 0) {
+            throw new BadRequestException("Capacity must not be negative");
+        }
+    }
+
+    /**
+     * Set-based delete: one statement for the enrollments, one for the course. Nothing is loaded
+     * into the persistence context, so cost no longer grows with the number of enrolled students.
+     */
     @Transactional
     public void delete(Long id) {
         log.info("Delete course id={}", id);
-        courseRepository.delete(get(id));
+        String code = courseRepository.findCodeById(id)
+                .orElseThrow(() -> new NotFoundException("Course %d not found".formatted(id)));
+        waitlist.deleteByCourseId(id);
+        int removed = enrollments.deleteByCourseId(id);
+        courseRepository.deleteByKey(id);
+        index.courseRemoved(id);
+        log.debug("Deleted course id={} with {} enrollments", id, removed);
+        courseCache.evict(id, code);
+        catalogCache.invalidate();
     }
 }
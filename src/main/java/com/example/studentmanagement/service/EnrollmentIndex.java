@@ -0,0 +1,214 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.domain.EnrollmentId;
+import com.example.studentmanagement.dto.CursorPage;
+import com.example.studentmanagement.dto.StudentSetResult;
+import com.example.studentmanagement.exception.BadRequestException;
+import com.example.studentmanagement.exception.ServiceUnavailableException;
+import com.example.studentmanagement.repo.EnrollmentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import org.roaringbitmap.longlong.PeekableLongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory course -> student-id index held as compressed (Roaring) bitmaps, for set-algebra queries such as
+ * "in CS101 and MATH201 but not PHYS110" without touching the database.
+ * <p>
+ * Built from the enrollments table once the application is ready and again on
+ * {@code app.enrollment-index.rebuild-cron}; {@link EnrollmentService} and {@link CourseService} apply their
+ * changes after commit. Published bitmaps are never modified: writers replace them with an updated copy, so
+ * queries read without locking. Changes committed while a rebuild is scanning are journaled and replayed onto
+ * the new index before it is swapped in.
+ */
+@Component
+public class EnrollmentIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentIndex.class);
+    static final int MAX_COURSES_PER_QUERY = 100;
+    private static final Roaring64Bitmap EMPTY = new Roaring64Bitmap();
+
+    private final EnrollmentRepository enrollments;
+    private volatile Map<Long, Roaring64Bitmap> byCourse = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    /** Non-null while a rebuild is scanning; guarded by {@code this}. */
+    private List<Consumer<Map<Long, Roaring64Bitmap>>> journal;
+
+    public EnrollmentIndex(EnrollmentRepository enrollments, MeterRegistry registry) {
+        this.enrollments = enrollments;
+        Gauge.builder("enrollment.index.courses", this, index -> index.byCourse.size()).register(registry);
+        Gauge.builder("enrollment.index.bytes", this, EnrollmentIndex::sizeInBytes)
+                .baseUnit("bytes").register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.enrollment-index.rebuild-cron:0 47 3 * * *}")
+    @Transactional
+    public void rebuild() {
+        long started = System.nanoTime();
+        synchronized (this) {
+            journal = new ArrayList<>();
+        }
+        Map<Long, Roaring64Bitmap> fresh = new HashMap<>();
+        long rows = 0;
+        try (Stream<EnrollmentId> ids = enrollments.streamAllIds()) {
+            for (EnrollmentId id : (Iterable<EnrollmentId>) ids::iterator) {
+                fresh.computeIfAbsent(id.getCourseId(), k -> new Roaring64Bitmap()).addLong(id.getStudentId());
+                rows++;
+            }
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                journal = null;
+            }
+            throw ex;
+        }
+        fresh.values().forEach(Roaring64Bitmap::runOptimize);
+        int replayed;
+        synchronized (this) {
+            replayed = journal.size();
+            journal.forEach(op -> op.accept(fresh));
+            byCourse = new ConcurrentHashMap<>(fresh);
+            journal = null;
+        }
+        ready = true;
+        log.info("Enrollment index built: {} enrollments over {} courses, {} bytes, {} replayed, {} ms",
+                rows, fresh.size(), sizeInBytes(), replayed, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void added(Long studentId, Long courseId) {
+        afterCommit(index -> update(index, courseId, b -> b.addLong(studentId)));
+    }
+
+    public void addedAll(Collection<EnrollmentId> ids) {
+        Map<Long, List<Long>> byCourseId = ids.stream().collect(Collectors.groupingBy(EnrollmentId::getCourseId,
+                Collectors.mapping(EnrollmentId::getStudentId, Collectors.toList())));
+        afterCommit(index -> byCourseId.forEach((courseId, studentIds) ->
+                update(index, courseId, b -> studentIds.forEach(b::addLong))));
+    }
+
+    public void removed(Long studentId, Long courseId) {
+        afterCommit(index -> update(index, courseId, b -> b.removeLong(studentId)));
+    }
+
+    public void studentRemoved(Long studentId, Collection<Long> courseIds) {
+        List<Long> copy = List.copyOf(courseIds);
+        afterCommit(index -> copy.forEach(courseId -> update(index, courseId, b -> b.removeLong(studentId))));
+    }
+
+    public void courseRemoved(Long courseId) {
+        afterCommit(index -> index.remove(courseId));
+    }
+
+    /**
+     * Students enrolled in every course of {@code allOf}, in at least one of {@code anyOf}, and in none of
+     * {@code noneOf}. At least one of allOf/anyOf is required. Returns the match count and, unless
+     * {@code countOnly}, the page of ids greater than {@code after}.
+     */
+    public StudentSetResult query(Collection<Long> allOf, Collection<Long> anyOf, Collection<Long> noneOf,
+                                  Long after, Integer limit, boolean countOnly) {
+        if (allOf.isEmpty() && anyOf.isEmpty()) {
+            throw new BadRequestException("allOf or anyOf is required");
+        }
+        if (allOf.size() + anyOf.size() + noneOf.size() > MAX_COURSES_PER_QUERY) {
+            throw new BadRequestException("At most %d courses per query".formatted(MAX_COURSES_PER_QUERY));
+        }
+        int size = countOnly ? 0 : CursorPage.clampLimit(limit);
+        if (!ready) {
+            throw new ServiceUnavailableException("Enrollment index is still loading");
+        }
+        Map<Long, Roaring64Bitmap> index = byCourse;
+
+        Roaring64Bitmap result = null;
+        // smallest set first keeps every intermediate AND small
+        List<Roaring64Bitmap> required = allOf.stream().map(id -> index.getOrDefault(id, EMPTY))
+                .sorted(Comparator.comparingLong(Roaring64Bitmap::getLongCardinality)).toList();
+        for (Roaring64Bitmap b : required) {
+            result = result == null ? b.clone() : Roaring64Bitmap.and(result, b);
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        if (!anyOf.isEmpty() && (result == null || !result.isEmpty())) {
+            Roaring64Bitmap union = new Roaring64Bitmap();
+            anyOf.forEach(id -> union.or(index.getOrDefault(id, EMPTY)));
+            result = result == null ? union : Roaring64Bitmap.and(result, union);
+        }
+        for (Long id : noneOf) {
+            if (result.isEmpty()) {
+                break;
+            }
+            result.andNot(index.getOrDefault(id, EMPTY));
+        }
+
+        long count = result.getLongCardinality();
+        if (countOnly) {
+            return new StudentSetResult(count, List.of(), null);
+        }
+        List<Long> page = new ArrayList<>(size);
+        PeekableLongIterator it = result.getLongIteratorFrom(after == null ? 0 : after + 1);
+        while (it.hasNext() && page.size() < size) {
+            page.add(it.next());
+        }
+        Long next = it.hasNext() && !page.isEmpty() ? page.get(page.size() - 1) : null;
+        return new StudentSetResult(count, page, next);
+    }
+
+    long sizeInBytes() {
+        return byCourse.values().stream().mapToLong(Roaring64Bitmap::serializedSizeInBytes).sum();
+    }
+
+    private static void update(Map<Long, Roaring64Bitmap> index, Long courseId, Consumer<Roaring64Bitmap> change) {
+        index.compute(courseId, (k, old) -> {
+            Roaring64Bitmap copy = old == null ? new Roaring64Bitmap() : old.clone();
+            change.accept(copy);
+            return copy.isEmpty() ? null : copy;
+        });
+    }
+
+    /**
+     * Rolled-back transactions must not leak into the index, so changes wait for the commit.
+     */
+    private void afterCommit(Consumer<Map<Long, Roaring64Bitmap>> op) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(op);
+                }
+            });
+        } else {
+            apply(op);
+        }
+    }
+
+    private synchronized void apply(Consumer<Map<Long, Roaring64Bitmap>> op) {
+        op.accept(byCourse);
+        if (journal != null) {
+            journal.add(op);
+        }
+    }
+}
@@ -1,36 +1,78 @@
 package com.example.studentmanagement.service;
 
-import com.example.studentmanagement.domain.Course;
 import com.example.studentmanagement.domain.Enrollment;
 import com.example.studentmanagement.domain.EnrollmentId;
-import com.example.studentmanagement.domain.Student;
+import com.example.studentmanagement.domain.Grade;
+import com.example.studentmanagement.dto.BulkEnrollmentResult;
+import com.example.studentmanagement.dto.BulkEnrollmentResult.Status;
+import com.example.studentmanagement.dto.CourseGradeDistribution;
+import com.example.studentmanagement.dto.EnrollmentDto;
+import com.example.studentmanagement.dto.GradeCount;
+import com.example.studentmanagement.dto.SeatRequestResult;
+import com.example.studentmanagement.dto.StudentCourseDto;
+import com.example.studentmanagement.dto.StudentGpa;
+import com.example.studentmanagement.dto.StudentSetResult;
+import com.example.studentmanagement.dto.WaitlistEntryDto;
 import com.example.studentmanagement.exception.BadRequestException;
 import com.example.studentmanagement.exception.NotFoundException;
 import com.example.studentmanagement.repo.CourseRepository;
 import com.example.studentmanagement.repo.EnrollmentRepository;
 import com.example.studentmanagement.repo.StudentRepository;
+import com.example.studentmanagement.repo.WaitlistRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 @Service
+@Timed("app.service")
 public class EnrollmentService {
 
     private static final Logger log = LoggerFactory.getLogger(EnrollmentService.class);
+    static final int MAX_BULK_SIZE = 10_000;
+    static final int PROMOTION_SCAN = 8;
+    private static final int CLAIM_ATTEMPTS = 5;
 
     private final EnrollmentRepository enrollments;
     private final StudentRepository students;
     private final CourseRepository courses;
+    private final CourseCache courseCache;
+    private final WaitlistRepository waitlist;
+    private final EnrollmentIndex index;
 
     public EnrollmentService(EnrollmentRepository enrollments,
                              StudentRepository students,
-                             CourseRepository courses) {
+                             CourseRepository courses,
+                             CourseCache courseCache,
+                             WaitlistRepository waitlist,
+                             EnrollmentIndex index) {
         this.enrollments = enrollments;
         this.students = students;
         this.courses = courses;
+        this.courseCache = courseCache;
+        this.waitlist = waitlist;
+        this.index = index;
     }
 
     public List<Enrollment> list() {
@@ -40,55 +82,395 @@ public class EnrollmentService {
 
     public List<Enrollment> listByStudentId(Long studentId) {
         log.debug("Listing enrollments by studentId={}", studentId);
-        return enrollments.findAll().stream()
-                .filter(e -> e.getId().getStudentId().equals(studentId))
-                .toList();
+        return enrollments.findByStudentId(studentId);
+    }
+
+    public List<StudentCourseDto> courseViewByStudentId(Long studentId) {
+        log.debug("Listing course view by studentId={}", studentId);
+        return enrollments.findCourseViewByStudentId(studentId);
     }
 
     public List<Enrollment> listByCourseId(Long courseId) {
         log.debug("Listing enrollments by courseId={}", courseId);
-        return enrollments.findAll().stream()
-                .filter(e -> e.getId().getCourseId().equals(courseId))
-                .toList();
+        return enrollments.findByCourseId(courseId);
     }
 
+    /**
+     * Claims the seat first with a conditional update on the course row, then inserts the enrollment,
+     * leaning on the primary key for duplicates and on the foreign keys for existence. Any failure after
+     * the claim rolls the transaction back, which releases the seat.
+     */
     @Transactional
     public Enrollment enroll(Long studentId, Long courseId) {
         log.info("Enroll studentId={} courseId={}", studentId, courseId);
-        Student s = students.findById(studentId)
-                .orElseThrow(() -> new NotFoundException("Student %d not found".formatted(studentId)));
-        Course c = courses.findById(courseId)
-                .orElseThrow(() -> new NotFoundException("Course %d not found".formatted(courseId)));
+        if (!claimSeat(courseId)) {
+            rejectUnavailable(studentId, courseId);
+            throw new BadRequestException("Course %d is full".formatted(courseId));
+        }
+        insertClaimed(studentId, courseId);
+
+        Enrollment e = new Enrollment();
+        e.setId(new EnrollmentId(studentId, courseId));
+        return e;
+    }
+
+    /**
+     * Enrolls when a seat is free, otherwise queues the student on the course's waitlist.
+     */
+    @Transactional
+    public SeatRequestResult enrollOrWaitlist(Long studentId, Long courseId) {
+        log.info("Enroll or waitlist studentId={} courseId={}", studentId, courseId);
+        if (claimSeat(courseId)) {
+            insertClaimed(studentId, courseId);
+            return new SeatRequestResult(studentId, courseId, SeatRequestResult.Status.ENROLLED, null);
+        }
+        rejectUnavailable(studentId, courseId);
+        try {
+            waitlist.insertIfAbsent(studentId, courseId, Instant.now());
+        } catch (DataIntegrityViolationException ex) {
+            throw missingReference(ex, studentId, courseId);
+        }
+        long position = waitlist.findPosition(studentId, courseId);
+        return new SeatRequestResult(studentId, courseId, SeatRequestResult.Status.WAITLISTED, position);
+    }
+
+    public List<WaitlistEntryDto> waitlistByCourseId(Long courseId) {
+        log.debug("Listing waitlist by courseId={}", courseId);
+        return waitlist.findViewByCourseId(courseId);
+    }
+
+    @Transactional
+    public void leaveWaitlist(Long studentId, Long courseId) {
+        log.info("Leave waitlist studentId={} courseId={}", studentId, courseId);
+        if (waitlist.deleteByKey(studentId, courseId) == 0) {
+            throw new NotFoundException("Waitlist entry not found");
+        }
+    }
+
+    private boolean claimSeat(Long courseId) {
+        return courses.claimSeats(courseId, 1, Instant.now()) == 1;
+    }
+
+    /**
+     * A failed claim means the course is missing, full, or (when full) already holds this student;
+     * the last two are told apart here so callers only see "full" for a genuinely full course.
+     */
+    private void rejectUnavailable(Long studentId, Long courseId) {
+        if (courses.findEnrollmentCountById(courseId).isEmpty()) {
+            throw new NotFoundException("Course %d not found".formatted(courseId));
+        }
+        if (enrollments.existsById(new EnrollmentId(studentId, courseId))) {
+            throw new BadRequestException("Student already enrolled in course");
+        }
+    }
 
-        EnrollmentId id = new EnrollmentId(s.getId(), c.getId());
-        if (enrollments.existsById(id)) {
+    private void insertClaimed(Long studentId, Long courseId) {
+        int inserted;
+        try {
+            inserted = enrollments.insertIfAbsent(studentId, courseId);
+        } catch (DataIntegrityViolationException ex) {
+            throw missingReference(ex, studentId, courseId);
+        }
+        if (inserted == 0) {
             throw new BadRequestException("Student already enrolled in course");
         }
+        index.added(studentId, courseId);
+        evictCourse(courseId);
+    }
 
-        Enrollment e = new Enrollment();
-        e.setId(id);
-        e.setStudent(s);
-        e.setCourse(c);
-        return enrollments.save(e);
+    private static RuntimeException missingReference(DataIntegrityViolationException ex, Long studentId, Long courseId) {
+        String constraint = ex.getCause() instanceof ConstraintViolationException cve && cve.getConstraintName() != null
+                ? cve.getConstraintName()
+                : String.valueOf(ex.getMessage());
+        constraint = constraint.toLowerCase(Locale.ROOT);
+        if (constraint.contains("fk_enroll_student") || constraint.contains("fk_waitlist_student")) {
+            return new NotFoundException("Student %d not found".formatted(studentId));
+        }
+        if (constraint.contains("fk_enroll_course") || constraint.contains("fk_waitlist_course")) {
+            return new NotFoundException("Course %d not found".formatted(courseId));
+        }
+        return ex;
+    }
+
+    /**
+     * Enrolls many (student, course) pairs in one transaction: existence and duplicate checks are
+     * set-based IN-list queries and the new rows go out as batched inserts. Seats are claimed per
+     * course, in course id order; pairs beyond a course's free seats get COURSE_FULL. Every input
+     * pair gets an outcome, in request order.
+     */
+    @Transactional
+    public List<BulkEnrollmentResult> bulkEnroll(List<EnrollmentDto> pairs) {
+        log.info("Bulk enroll pairs={}", pairs.size());
+        if (pairs.size() > MAX_BULK_SIZE) {
+            throw new BadRequestException("At most %d pairs per request".formatted(MAX_BULK_SIZE));
+        }
+        Set<Long> studentIds = pairs.stream().map(EnrollmentDto::studentId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Long> courseIds = pairs.stream().map(EnrollmentDto::courseId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+
+        Set<Long> knownStudents = new HashSet<>();
+        for (List<Long> chunk : Batches.partition(studentIds, Batches.IN_LIST_CHUNK)) {
+            knownStudents.addAll(students.findExistingIds(chunk));
+        }
+        Set<Long> knownCourses = new HashSet<>();
+        for (List<Long> chunk : Batches.partition(courseIds, Batches.IN_LIST_CHUNK)) {
+            knownCourses.addAll(courses.findExistingIds(chunk));
+        }
+        Set<EnrollmentId> existing = findExistingIds(knownStudents, knownCourses);
+
+        Status[] statuses = new Status[pairs.size()];
+        Set<EnrollmentId> candidates = new LinkedHashSet<>();
+        for (int i = 0; i < pairs.size(); i++) {
+            EnrollmentDto p = pairs.get(i);
+            EnrollmentId id = new EnrollmentId(p.studentId(), p.courseId());
+            if (!knownStudents.contains(p.studentId())) {
+                statuses[i] = Status.MISSING_STUDENT;
+            } else if (!knownCourses.contains(p.courseId())) {
+                statuses[i] = Status.MISSING_COURSE;
+            } else if (existing.contains(id) || !candidates.add(id)) {
+                statuses[i] = Status.DUPLICATE;
+            }
+        }
+
+        Map<Long, Integer> requested = new TreeMap<>();
+        candidates.forEach(id -> requested.merge(id.getCourseId(), 1, Integer::sum));
+        Map<Long, Integer> granted = new TreeMap<>();
+        requested.forEach((courseId, seats) -> granted.put(courseId, claimUpTo(courseId, seats)));
+
+        Set<EnrollmentId> toInsert = new LinkedHashSet<>();
+        for (EnrollmentId id : candidates) {
+            if (granted.merge(id.getCourseId(), -1, Integer::sum) >= 0) {
+                toInsert.add(id);
+            }
+        }
+
+        Set<EnrollmentId> inserted = enrollments.insertAll(toInsert);
+        Map<EnrollmentId, Status> skipped = skippedOutcomes(toInsert, inserted);
+
+        List<BulkEnrollmentResult> results = new ArrayList<>(pairs.size());
+        for (int i = 0; i < pairs.size(); i++) {
+            EnrollmentDto p = pairs.get(i);
+            Status status = statuses[i];
+            if (status == null) {
+                EnrollmentId id = new EnrollmentId(p.studentId(), p.courseId());
+                if (inserted.contains(id)) {
+                    status = Status.CREATED;
+                } else {
+                    status = skipped.getOrDefault(id, Status.COURSE_FULL);
+                }
+            }
+            results.add(new BulkEnrollmentResult(p.studentId(), p.courseId(), status));
+        }
+
+        index.addedAll(inserted);
+        requested.keySet().forEach(this::evictCourse);
+        log.info("Bulk enroll created={} of {}", inserted.size(), pairs.size());
+        return results;
+    }
+
+    /**
+     * Rows the batch skipped were enrolled, or had their student or course deleted, by a concurrent
+     * request after the checks above. Their seats go back and each gets the outcome it would have had.
+     */
+    private Map<EnrollmentId, Status> skippedOutcomes(Set<EnrollmentId> attempted, Set<EnrollmentId> inserted) {
+        if (inserted.size() == attempted.size()) {
+            return Map.of();
+        }
+        List<EnrollmentId> skipped = attempted.stream().filter(id -> !inserted.contains(id)).toList();
+        Set<Long> liveStudents = new HashSet<>();
+        for (List<Long> chunk : Batches.partition(
+                skipped.stream().map(EnrollmentId::getStudentId).collect(Collectors.toSet()), Batches.IN_LIST_CHUNK)) {
+            liveStudents.addAll(students.findExistingIds(chunk));
+        }
+        Set<Long> liveCourses = new HashSet<>();
+        for (List<Long> chunk : Batches.partition(
+                skipped.stream().map(EnrollmentId::getCourseId).collect(Collectors.toSet()), Batches.IN_LIST_CHUNK)) {
+            liveCourses.addAll(courses.findExistingIds(chunk));
+        }
+        Map<Long, Integer> released = new TreeMap<>();
+        Map<EnrollmentId, Status> outcomes = new HashMap<>();
+        for (EnrollmentId id : skipped) {
+            released.merge(id.getCourseId(), 1, Integer::sum);
+            outcomes.put(id, !liveStudents.contains(id.getStudentId()) ? Status.MISSING_STUDENT
+                    : !liveCourses.contains(id.getCourseId()) ? Status.MISSING_COURSE
+                    : Status.DUPLICATE);
+        }
+        released.forEach((courseId, seats) -> courses.adjustEnrollmentCount(courseId, -seats, Instant.now()));
+        log.info("Bulk enroll skipped {} rows changed concurrently", skipped.size());
+        return outcomes;
+    }
+
+    /**
+     * Claims as many of the wanted seats as the course has free. Each attempt is one conditional update;
+     * a concurrent registration can only shrink the free count, so the loop converges quickly.
+     */
+    private int claimUpTo(Long courseId, int wanted) {
+        int want = wanted;
+        for (int attempt = 0; attempt < CLAIM_ATTEMPTS && want > 0; attempt++) {
+            if (courses.claimSeats(courseId, want, Instant.now()) == 1) {
+                return want;
+            }
+            want = Math.min(want, courses.findFreeSeatsById(courseId).orElse(0));
+        }
+        return 0;
     }
 
+    private Set<EnrollmentId> findExistingIds(Collection<Long> studentIds, Collection<Long> courseIds) {
+        Set<EnrollmentId> existing = new HashSet<>();
+        for (List<Long> studentChunk : Batches.partition(studentIds, Batches.IN_LIST_CHUNK)) {
+            for (List<Long> courseChunk : Batches.partition(courseIds, Batches.IN_LIST_CHUNK)) {
+                existing.addAll(enrollments.findExistingIds(studentChunk, courseChunk));
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Accepts a label from the grade scale (case-insensitive) or null to clear the grade.
+     */
     @Transactional
     public Enrollment setGrade(Long studentId, Long courseId, String grade) {
         log.info("Set grade studentId={} courseId={} grade={}", studentId, courseId, grade);
+        Grade parsed = parseGrade(grade);
         EnrollmentId id = new EnrollmentId(studentId, courseId);
         Enrollment e = enrollments.findById(id)
                 .orElseThrow(() -> new NotFoundException("Enrollment not found"));
-        e.setGrade(grade);
+        e.setGrade(parsed);
         return e;
     }
 
+    private static Grade parseGrade(String grade) {
+        if (grade == null) {
+            return null;
+        }
+        try {
+            return Grade.fromLabel(grade);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Unknown grade '%s'".formatted(grade));
+        }
+    }
+
+    public StudentGpa gpa(Long studentId) {
+        log.debug("GPA for studentId={}", studentId);
+        return enrollments.findGpaByStudentId(studentId).orElseGet(() -> {
+            if (!students.existsById(studentId)) {
+                throw new NotFoundException("Student %d not found".formatted(studentId));
+            }
+            return new StudentGpa(studentId, (BigDecimal) null, 0L);
+        });
+    }
+
+    /**
+     * The database groups the course's enrollments by grade; the average is then weighted over those few rows.
+     */
+    public CourseGradeDistribution gradeDistribution(Long courseId) {
+        log.debug("Grade distribution for courseId={}", courseId);
+        List<GradeCount> counts = new ArrayList<>(enrollments.findGradeCountsByCourseId(courseId));
+        if (counts.isEmpty() && courses.findEnrollmentCountById(courseId).isEmpty()) {
+            throw new NotFoundException("Course %d not found".formatted(courseId));
+        }
+        counts.sort(Comparator.comparing(GradeCount::grade));
+        long graded = 0;
+        BigDecimal totalPoints = BigDecimal.ZERO;
+        for (GradeCount c : counts) {
+            graded += c.count();
+            totalPoints = totalPoints.add(c.grade().points().multiply(BigDecimal.valueOf(c.count())));
+        }
+        BigDecimal average = graded == 0 ? null
+                : totalPoints.divide(BigDecimal.valueOf(graded), 2, RoundingMode.HALF_UP);
+        return new CourseGradeDistribution(courseId, graded, average, counts);
+    }
+
+    /**
+     * Set algebra over course enrollments, answered from the in-memory {@link EnrollmentIndex}.
+     */
+    public StudentSetResult studentsMatching(List<Long> allOf, List<Long> anyOf, List<Long> noneOf,
+                                             Long after, Integer limit, boolean countOnly) {
+        log.debug("Student set allOf={} anyOf={} noneOf={}", allOf, anyOf, noneOf);
+        return index.query(allOf, anyOf, noneOf, after, limit, countOnly);
+    }
+
+    /**
+     * Releases the seat (course row first, the same lock order as enroll) and hands it to the head of the
+     * waitlist in the same transaction.
+     */
     @Transactional
     public void unenroll(Long studentId, Long courseId) {
         log.info("Unenroll studentId={} courseId={}", studentId, courseId);
-        EnrollmentId id = new EnrollmentId(studentId, courseId);
-        Enrollment e = enrollments.findById(id)
-                .orElseThrow(() -> new NotFoundException("Enrollment not found"));
-        enrollments.delete(e);
+        courses.adjustEnrollmentCount(courseId, -1, Instant.now());
+        if (enrollments.deleteByKey(studentId, courseId) == 0) {
+            throw new NotFoundException("Enrollment not found");
+        }
+        index.removed(studentId, courseId);
+        fillFromWaitlist(courseId);
+        evictCourse(courseId);
+    }
+
+    /**
+     * Drops all of a student's enrollments and waitlist entries, decrements the affected course counts
+     * set-based, and offers each freed seat to that course's waitlist.
+     */
+    @Transactional
+    public int removeAllForStudent(Long studentId) {
+        waitlist.deleteByStudentId(studentId);
+        List<Long> courseIds = enrollments.findCourseIdsByStudentId(studentId);
+        if (courseIds.isEmpty()) {
+            return 0;
+        }
+        courses.decrementEnrollmentCountsForStudent(studentId, Instant.now());
+        int removed = enrollments.deleteByStudentId(studentId);
+        index.studentRemoved(studentId, courseIds);
+        for (Long courseId : courseIds) {
+            fillFromWaitlist(courseId);
+            courseCache.evict(courseId);
+        }
+        return removed;
+    }
+
+    /**
+     * Moves waitlisted students into free seats, oldest first, until the course is full or the list is
+     * empty; returns the number promoted. Each promotion claims its seat like a regular enroll. A student
+     * deleted concurrently fails the promotion with the same 404 an enroll would get; the transaction
+     * cannot skip the row, as PostgreSQL aborts it on the constraint violation.
+     */
+    @Transactional
+    public int fillFromWaitlist(Long courseId) {
+        int promoted = 0;
+        List<Long> next = waitlist.findNextStudentIds(courseId, Limit.of(PROMOTION_SCAN));
+        while (!next.isEmpty()) {
+            for (Long studentId : next) {
+                if (!claimSeat(courseId)) {
+                    return promoted;
+                }
+                if (waitlist.deleteByKey(studentId, courseId) == 1 && promote(studentId, courseId) == 1) {
+                    log.info("Promoted studentId={} from waitlist of courseId={}", studentId, courseId);
+                    index.added(studentId, courseId);
+                    promoted++;
+                } else {
+                    courses.adjustEnrollmentCount(courseId, -1, Instant.now());
+                }
+            }
+            next = waitlist.findNextStudentIds(courseId, Limit.of(PROMOTION_SCAN));
+        }
+        return promoted;
+    }
+
+    private int promote(Long studentId, Long courseId) {
+        try {
+            return enrollments.insertIfAbsent(studentId, courseId);
+        } catch (DataIntegrityViolationException ex) {
+            throw missingReference(ex, studentId, courseId);
+        }
+    }
+
+    /**
+     * Enrollment counts live on the course row and are updated in the enrolling transaction, so they commit
+     * or roll back with the enrollment itself. The cached course view is dropped because it carries the count;
+     * the catalog snapshot is left alone and its counts lag by at most app.catalog-cache.ttl.
+     */
+    private void evictCourse(Long courseId) {
+        courseCache.evict(courseId);
     }
 
 }
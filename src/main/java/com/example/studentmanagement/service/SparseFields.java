@@ -0,0 +1,40 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parses {@code ?fields=} lists. The id is always selected, first, so rows stay addressable and pageable.
+ */
+final class SparseFields {
+
+    private SparseFields() {
+    }
+
+    static List<String> parse(String fields, List<String> allowed) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        if (fields != null) {
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                if (!allowed.contains(name)) {
+                    throw new BadRequestException("Unknown field '%s'; allowed: %s".formatted(name, String.join(",", allowed)));
+                }
+                selected.add(name);
+            }
+        }
+        return new ArrayList<>(selected);
+    }
+
+    static Long id(Map<String, Object> row) {
+        return (Long) row.get("id");
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.domain.Student;
+import com.example.studentmanagement.dto.StudentImportResult;
+import com.example.studentmanagement.dto.StudentImportResult.RowError;
+import com.example.studentmanagement.exception.BadRequestException;
+import com.example.studentmanagement.repo.StudentRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV roster into the students table. Rows are validated with the {@link Student}
+ * bean-validation constraints, emails are deduplicated against the file and, one batch at a time,
+ * against the database, and accepted rows are written with batched JDBC inserts.
+ * <p>
+ * The import is not all-or-nothing: each batch commits in its own transaction, so a failure part way
+ * through keeps the batches already written. A batch the database rejects (typically an email inserted
+ * concurrently after the existence check) is retried row by row, and only the offending rows are reported.
+ * At most {@link #MAX_REPORTED_ERRORS} row errors are returned; {@code rejected} still counts all of them.
+ */
+@Service
+public class StudentImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentImportService.class);
+
+    static final int DEFAULT_BATCH_SIZE = 500;
+    static final int MAX_BATCH_SIZE = 5000;
+    static final int MAX_REPORTED_ERRORS = 1000;
+    static final List<String> COLUMNS = List.of("firstName", "lastName", "email", "birthDate");
+
+    private final StudentRepository students;
+    private final Validator validator;
+
+    public StudentImportService(StudentRepository students, Validator validator) {
+        this.students = students;
+        this.validator = validator;
+    }
+
+    private record PendingRow(int line, Student student) {
+    }
+
+    /** Counts every rejected row but keeps only the first {@link #MAX_REPORTED_ERRORS} for the response. */
+    private static final class Rejections {
+        private final List<RowError> reported = new ArrayList<>();
+        private int count;
+
+        void add(int line, String email, String message) {
+            count++;
+            if (reported.size() < MAX_REPORTED_ERRORS) {
+                reported.add(new RowError(line, email, message));
+            }
+        }
+    }
+
+    public StudentImportResult importCsv(InputStream in, Integer batchSize) throws IOException {
+        int size = batchSize == null ? DEFAULT_BATCH_SIZE : batchSize;
+        if (size < 1 || size > MAX_BATCH_SIZE) {
+            throw new BadRequestException("batchSize must be between 1 and %d".formatted(MAX_BATCH_SIZE));
+        }
+        log.info("Import students from CSV batchSize={}", size);
+        long started = System.nanoTime();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            throw new BadRequestException("CSV is empty");
+        }
+        int[] columns = columnIndexes(parseLine(header));
+
+        Rejections errors = new Rejections();
+        Set<String> seenEmails = new HashSet<>();
+        List<PendingRow> pending = new ArrayList<>(size);
+        int rows = 0;
+        int imported = 0;
+        int lineNo = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            rows++;
+            Student s = toStudent(lineNo, parseLine(line), columns, errors);
+            if (s == null) {
+                continue;
+            }
+            if (!seenEmails.add(s.getEmail())) {
+                errors.add(lineNo, s.getEmail(), "Duplicate email in file");
+                continue;
+            }
+            pending.add(new PendingRow(lineNo, s));
+            if (pending.size() == size) {
+                imported += flush(pending, errors);
+            }
+        }
+        imported += flush(pending, errors);
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        double rowsPerSecond = elapsedMillis == 0 ? rows : rows * 1000.0 / elapsedMillis;
+        log.info("Imported {} of {} students in {} ms ({} rejected)", imported, rows, elapsedMillis, errors.count);
+        return new StudentImportResult(rows, imported, errors.count, elapsedMillis, rowsPerSecond, errors.reported);
+    }
+
+    private int flush(List<PendingRow> pending, Rejections errors) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        Set<String> taken = new HashSet<>(students.findExistingEmails(
+                pending.stream().map(p -> p.student().getEmail()).toList()));
+        List<PendingRow> batch = new ArrayList<>(pending.size());
+        for (PendingRow p : pending) {
+            if (taken.contains(p.student().getEmail())) {
+                errors.add(p.line(), p.student().getEmail(), "Email already exists");
+            } else {
+                batch.add(p);
+            }
+        }
+        pending.clear();
+        try {
+            return students.insertAll(batch.stream().map(PendingRow::student).toList());
+        } catch (DataIntegrityViolationException ex) {
+            log.warn("Import batch of {} rows rejected by the database, retrying row by row", batch.size());
+            return insertOneByOne(batch, errors);
+        }
+    }
+
+    private int insertOneByOne(List<PendingRow> batch, Rejections errors) {
+        int inserted = 0;
+        for (PendingRow p : batch) {
+            try {
+                inserted += students.insertAll(List.of(p.student()));
+            } catch (DataIntegrityViolationException ex) {
+                errors.add(p.line(), p.student().getEmail(), "Email already exists");
+            }
+        }
+        return inserted;
+    }
+
+    private Student toStudent(int lineNo, List<String> fields, int[] columns, Rejections errors) {
+        String email = field(fields, columns[2]);
+        Student s = new Student();
+        s.setFirstName(field(fields, columns[0]));
+        s.setLastName(field(fields, columns[1]));
+        s.setEmail(email);
+        String birthDate = field(fields, columns[3]);
+        if (birthDate != null) {
+            try {
+                s.setBirthDate(LocalDate.parse(birthDate));
+            } catch (DateTimeParseException ex) {
+                errors.add(lineNo, email, "birthDate: must be an ISO date (yyyy-MM-dd)");
+                return null;
+            }
+        }
+        Set<ConstraintViolation<Student>> violations = validator.validate(s);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            errors.add(lineNo, email, message);
+            return null;
+        }
+        return s;
+    }
+
+    private static String field(List<String> fields, int index) {
+        if (index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static int[] columnIndexes(List<String> header) {
+        Map<String, Integer> byName = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            byName.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        int[] indexes = new int[COLUMNS.size()];
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            Integer idx = byName.get(COLUMNS.get(i).toLowerCase(Locale.ROOT));
+            if (idx == null) {
+                throw new BadRequestException("CSV header must contain " + String.join(",", COLUMNS));
+            }
+            indexes[i] = idx;
+        }
+        return indexes;
+    }
+
+    /**
+     * Splits one CSV record. Fields may be double-quoted with {@code ""} as an escaped quote;
+     * quoted line breaks are not supported.
+     */
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    quoted = false;
+                } else {
+                    current.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(ch);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
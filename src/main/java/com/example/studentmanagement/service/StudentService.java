@@ -2,40 +2,142 @@ package com.example.studentmanagement.service;
 
 import com.example.studentmanagement.domain.Course;
 import com.example.studentmanagement.domain.Enrollment;
-import com.example.studentmanagement.domain.EnrollmentId;
 import com.example.studentmanagement.domain.Student;
+import com.example.studentmanagement.dto.CursorPage;
+import com.example.studentmanagement.dto.MultiGetResult;
+import com.example.studentmanagement.dto.StudentDto;
 import com.example.studentmanagement.exception.BadRequestException;
 import com.example.studentmanagement.exception.NotFoundException;
-import com.example.studentmanagement.repo.CourseRepository;
 import com.example.studentmanagement.repo.EnrollmentRepository;
+import com.example.studentmanagement.repo.FieldProjectionRepository;
 import com.example.studentmanagement.repo.StudentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
+@Timed("app.service")
 public class StudentService {
 
     private static final Logger log = LoggerFactory.getLogger(StudentService.class);
+    static final int MAX_LIST_SIZE = 1000;
+    private static final int EXPORT_FLUSH_EVERY = 500;
+    static final List<String> FIELDS = List.of("id", "firstName", "lastName", "email", "birthDate", "createdAt", "updatedAt");
 
     private final StudentRepository students;
-    private final CourseRepository courses;
+    private final CourseCache courseCache;
     private final EnrollmentRepository enrollments;
+    private final EnrollmentService enrollmentService;
+    private final EntityManager entityManager;
+    private final ObjectMapper mapper;
+    private final FieldProjectionRepository projections;
 
     public StudentService(StudentRepository students,
-                          CourseRepository courses,
-                          EnrollmentRepository enrollments) {
+                          CourseCache courseCache,
+                          EnrollmentRepository enrollments,
+                          EnrollmentService enrollmentService,
+                          EntityManager entityManager,
+                          ObjectMapper mapper,
+                          FieldProjectionRepository projections) {
         this.students = students;
-        this.courses = courses;
+        this.courseCache = courseCache;
         this.enrollments = enrollments;
+        this.enrollmentService = enrollmentService;
+        this.entityManager = entityManager;
+        this.mapper = mapper;
+        this.projections = projections;
     }
 
-    public List<Student> list() {
-        log.debug("Listing students");
-        return students.findAll();
+    /**
+     * The first {@link #MAX_LIST_SIZE} students; {@code nextCursor} is set when there are more.
+     */
+    public CursorPage<Student> list() {
+        log.debug("Listing students (capped at {})", MAX_LIST_SIZE);
+        List<Student> rows = students.findAllByOrderByIdAsc(Limit.of(MAX_LIST_SIZE + 1));
+        return CursorPage.of(rows, MAX_LIST_SIZE, Student::getId);
+    }
+
+    public CursorPage<Student> page(Long after, Integer limit) {
+        int size = CursorPage.clampLimit(limit);
+        log.debug("Paging students after={} limit={}", after, size);
+        List<Student> rows = after == null
+                ? students.findAllByOrderByIdAsc(Limit.of(size + 1))
+                : students.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size + 1));
+        return CursorPage.of(rows, size, Student::getId);
+    }
+
+    public MultiGetResult<Student> getAll(List<Long> ids) {
+        log.debug("Fetching {} students by id", ids == null ? 0 : ids.size());
+        return Batches.getAll(ids, MAX_LIST_SIZE, students::findAllById, Student::getId);
+    }
+
+    /**
+     * Sparse variants of list, page, get and getAll: only {@code fields} (plus id) are selected and returned.
+     */
+    public CursorPage<Map<String, Object>> list(String fields) {
+        List<Map<String, Object>> rows =
+                projections.find(Student.class, SparseFields.parse(fields, FIELDS), null, null, MAX_LIST_SIZE + 1);
+        return CursorPage.of(rows, MAX_LIST_SIZE, SparseFields::id);
+    }
+
+    public CursorPage<Map<String, Object>> page(Long after, Integer limit, String fields) {
+        int size = CursorPage.clampLimit(limit);
+        List<String> selected = SparseFields.parse(fields, FIELDS);
+        log.debug("Paging students after={} limit={} fields={}", after, size, selected);
+        return CursorPage.of(projections.find(Student.class, selected, after, null, size + 1), size, SparseFields::id);
+    }
+
+    public Map<String, Object> get(Long id, String fields) {
+        List<Map<String, Object>> rows =
+                projections.find(Student.class, SparseFields.parse(fields, FIELDS), null, List.of(id), 1);
+        if (rows.isEmpty()) {
+            throw new NotFoundException("Student %d not found".formatted(id));
+        }
+        return rows.get(0);
+    }
+
+    public MultiGetResult<Map<String, Object>> getAll(List<Long> ids, String fields) {
+        List<String> selected = SparseFields.parse(fields, FIELDS);
+        return Batches.getAll(ids, MAX_LIST_SIZE,
+                chunk -> projections.find(Student.class, selected, null, chunk, chunk.size()), SparseFields::id);
+    }
+
+    /**
+     * Writes every student as one JSON line, reading through a database cursor and detaching
+     * each row once written so memory stays flat regardless of table size.
+     */
+    @Transactional
+    public long exportNdjson(OutputStream out) throws IOException {
+        log.info("Export students as NDJSON");
+        long count = 0;
+        try (Stream<Student> rows = students.streamAll()) {
+            Iterator<Student> it = rows.iterator();
+            while (it.hasNext()) {
+                Student s = it.next();
+                out.write(mapper.writeValueAsBytes(StudentDto.from(s)));
+                out.write('\n');
+                entityManager.detach(s);
+                if (++count % EXPORT_FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        log.info("Exported {} students", count);
+        return count;
     }
 
     public Student get(Long id) {
@@ -43,6 +145,14 @@ public class StudentService {
                 .orElseThrow(() -> new NotFoundException("Student %d not found".formatted(id)));
     }
 
+    /**
+     * Version lookup for conditional GETs; reads a single column instead of hydrating the entity.
+     */
+    public Instant lastModified(Long id) {
+        return students.findUpdatedAtById(id)
+                .orElseThrow(() -> new NotFoundException("Student %d not found".formatted(id)));
+    }
+
     @Transactional
     public Student create(Student body) {
         log.info("Create student email={}", body.getEmail());
@@ -68,36 +178,28 @@ public class StudentService {
         return s;
     }
 
+    /**
+     * Removes the student's enrollments (adjusting course counts) with bulk statements, then the student
+     * row, without loading either into the persistence context.
+     */
     @Transactional
     public void delete(Long id) {
         log.info("Delete student id={}", id);
-        students.delete(get(id));
+        int removed = enrollmentService.removeAllForStudent(id);
+        if (students.deleteByKey(id) == 0) {
+            throw new NotFoundException("Student %d not found".formatted(id));
+        }
+        log.debug("Deleted student id={} with {} enrollments", id, removed);
     }
 
-    @Transactional
     public Enrollment enroll(Long studentId, Long courseId) {
-        log.info("Enroll studentId={} courseId={}", studentId, courseId);
-        Student s = get(studentId);
-        Course c = courses.findById(courseId)
-                .orElseThrow(() -> new NotFoundException("Course %d not found".formatted(courseId)));
-        EnrollmentId eid = new EnrollmentId(s.getId(), c.getId());
-        if (enrollments.existsById(eid)) {
-            throw new BadRequestException("Student already enrolled in course");
-        }
-        Enrollment e = new Enrollment();
-        e.setId(eid);
-        e.setStudent(s);
-        e.setCourse(c);
-        return enrollments.save(e);
+        Enrollment e = enrollmentService.enroll(studentId, courseId);
+        courseCache.findById(courseId).ifPresent(e::setCourse);
+        return e;
     }
 
-    @Transactional
     public void unenroll(Long studentId, Long courseId) {
-        log.info("Unenroll studentId={} courseId={}", studentId, courseId);
-        EnrollmentId eid = new EnrollmentId(studentId, courseId);
-        Enrollment e = enrollments.findById(eid)
-                .orElseThrow(() -> new NotFoundException("Enrollment not found"));
-        enrollments.delete(e);
+        enrollmentService.unenroll(studentId, courseId);
     }
 
     public List<Course> listCourses(Long studentId) {
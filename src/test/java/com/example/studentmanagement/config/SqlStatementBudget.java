@@ -0,0 +1,43 @@
+package com.example.studentmanagement.config;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement budgets for tests: MockMvc matchers on the {@value SqlStatementFilter#HEADER} header, and a
+ * counter for service-level code run on the test thread. Both need the application DataSource wrapped
+ * by {@link SqlStatementConfig}, i.e. a full application context.
+ */
+public final class SqlStatementBudget {
+
+    private SqlStatementBudget() {
+    }
+
+    public static ResultMatcher statements(int expected) {
+        return result -> assertThat(count(result.getResponse().getHeader(SqlStatementFilter.HEADER)))
+                .as("SQL statements for %s", result.getRequest().getRequestURI())
+                .isEqualTo(expected);
+    }
+
+    public static ResultMatcher atMostStatements(int budget) {
+        return result -> assertThat(count(result.getResponse().getHeader(SqlStatementFilter.HEADER)))
+                .as("SQL statements for %s", result.getRequest().getRequestURI())
+                .isBetween(0, budget);
+    }
+
+    /**
+     * Runs {@code work} on this thread and returns the number of JDBC statements it prepared.
+     */
+    public static int count(Runnable work) {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            work.run();
+            return scope.count();
+        }
+    }
+
+    private static int count(String header) {
+        assertThat(header).as(SqlStatementFilter.HEADER + " header").isNotNull();
+        return Integer.parseInt(header);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.studentmanagement.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TestAccessLogFilter {
+
+    private SimpleMeterRegistry registry;
+    private AccessLogProperties properties;
+    private AccessLogFilter filter;
+
+    @BeforeEach
+    void init() {
+        registry = new SimpleMeterRegistry();
+        properties = new AccessLogProperties();
+        properties.getRoutes().put("GET /api/students/{id}", 0.0);
+        filter = new AccessLogFilter(properties, registry);
+    }
+
+    private void call(String pattern, int status) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/x");
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+            ((MockHttpServletResponse) res).setStatus(status);
+        };
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+    }
+
+    private double count(String name, String route) {
+        var counter = registry.find(name).tag("route", route).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    void sampledOutRouteIsCountedNotLogged() throws Exception {
+        call("/api/students/{id}", 200);
+        call("/api/students/{id}", 200);
+
+        assertThat(count("access.log.sampled.out", "GET /api/students/{id}")).isEqualTo(2);
+        assertThat(count("access.log.written", "GET /api/students/{id}")).isZero();
+    }
+
+    @Test
+    void defaultRateLogsEveryRequest() throws Exception {
+        call("/api/courses", 200);
+
+        assertThat(count("access.log.written", "GET /api/courses")).isEqualTo(1);
+    }
+
+    @Test
+    void serverErrorsAndSlowRequestsBypassSampling() throws Exception {
+        call("/api/students/{id}", 500);
+        properties.setSlowThreshold(Duration.ZERO);
+        call("/api/students/{id}", 200);
+
+        assertThat(count("access.log.written", "GET /api/students/{id}")).isEqualTo(2);
+        assertThat(count("access.log.sampled.out", "GET /api/students/{id}")).isZero();
+    }
+
+    @Test
+    void asyncRequestIsLoggedWhenItCompletes() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/students/export");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/students/export");
+            req.startAsync();
+        });
+
+        assertThat(count("access.log.written", "GET /api/students/export")).isZero();
+
+        response.setStatus(500);
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        assertThat(count("access.log.written", "GET /api/students/export")).isEqualTo(1);
+    }
+}
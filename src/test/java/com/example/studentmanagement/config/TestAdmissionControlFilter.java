@@ -0,0 +1,96 @@
+package com.example.studentmanagement.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TestAdmissionControlFilter {
+
+    private SimpleMeterRegistry registry;
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void init() {
+        registry = new SimpleMeterRegistry();
+        filter = new AdmissionControlFilter(1, Duration.ofMillis(50), registry);
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/students");
+    }
+
+    @Test
+    void admitsAndReleasesPermit() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request(), response, (req, res) -> ((MockHttpServletResponse) res).setStatus(200));
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+        assertThat(registry.get("http.admission.available").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("http.admission.rejected").counter().count()).isZero();
+    }
+
+    @Test
+    void rejectsWith503WhenSaturated() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blocking = (req, res) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        Thread holder = new Thread(() -> {
+            try {
+                filter.doFilter(request(), new MockHttpServletResponse(), blocking);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        holder.start();
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(), response, (req, res) -> {
+            throw new AssertionError("must not reach the chain");
+        });
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(response.getContentAsString()).contains("\"status\":503");
+        assertThat(registry.get("http.admission.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        holder.join(5000);
+        assertThat(registry.get("http.admission.available").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void asyncRequestHoldsPermitUntilComplete() throws Exception {
+        MockHttpServletRequest request = request();
+        request.setAsyncSupported(true);
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertThat(registry.get("http.admission.available").gauge().value()).isZero();
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(request(), rejected, (req, res) -> {
+            throw new AssertionError("must not reach the chain");
+        });
+        assertThat(rejected.getStatus()).isEqualTo(503);
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertThat(registry.get("http.admission.available").gauge().value()).isEqualTo(1);
+    }
+}
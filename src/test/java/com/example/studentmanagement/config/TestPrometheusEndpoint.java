@@ -0,0 +1,49 @@
+package com.example.studentmanagement.config;
+
+import com.example.studentmanagement.service.CourseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Scrapes the real management port so renamed meters or a dropped percentile config show up as a test failure
+ * rather than as an empty dashboard.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"app.scheduling.enabled=false", "management.server.port=0"})
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("h2")
+class TestPrometheusEndpoint {
+
+    @Autowired
+    private TestRestTemplate rest;
+    @Autowired
+    private CourseService courseService;
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void exposesServicePercentilesAndPoolGauges() {
+        courseService.list();
+
+        ResponseEntity<String> response = rest.getForEntity(
+                "http://127.0.0.1:" + managementPort + "/actuator/prometheus", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .containsPattern("app_service_seconds\\{[^}]*quantile=\"0\\.5\"")
+                .containsPattern("app_service_seconds\\{[^}]*quantile=\"0\\.95\"")
+                .containsPattern("app_service_seconds\\{[^}]*quantile=\"0\\.99\"")
+                .contains("hikaricp_connections_active")
+                .contains("hikaricp_connections_pending")
+                .contains("hikaricp_connections_max");
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.studentmanagement.controller;
 
 import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.dto.CourseEnrollmentCount;
+import com.example.studentmanagement.dto.CursorPage;
+import com.example.studentmanagement.dto.MultiGetResult;
+import com.example.studentmanagement.service.CatalogCache;
 import com.example.studentmanagement.service.CourseService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -10,12 +14,19 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayOutputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -30,6 +41,8 @@ class TestCourseController {
 
     @MockBean
     private CourseService courseService;
+    @MockBean
+    private CatalogCache catalogCache;
 
     private Course course(long id, String code, String name) {
         Course c = new Course();
@@ -39,9 +52,24 @@ class TestCourseController {
         return c;
     }
 
+    private static final String ETAG = "\"courses-2-1704067200.0\"";
+
+    private CatalogCache.Snapshot snapshot(Course... courses) throws Exception {
+        return snapshot(false, courses);
+    }
+
+    private CatalogCache.Snapshot snapshot(boolean truncated, Course... courses) throws Exception {
+        byte[] json = mapper.writeValueAsBytes(List.of(courses));
+        ByteArrayOutputStream gz = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gz)) {
+            out.write(json);
+        }
+        return new CatalogCache.Snapshot(ETAG, json, gz.toByteArray(), truncated, Long.MAX_VALUE);
+    }
+
     @Test
     void list_ok() throws Exception {
-        when(courseService.list()).thenReturn(List.of(
+        when(catalogCache.get()).thenReturn(snapshot(
                 course(1, "CS101", "Intro"),
                 course(2, "CS102", "DSA")
         ));
@@ -55,7 +83,102 @@ class TestCourseController {
                 .andExpect(jsonPath("$[0].name").value("Intro"))
                 .andExpect(jsonPath("$[1].id").value(2))
                 .andExpect(jsonPath("$[1].code").value("CS102"))
-                .andExpect(jsonPath("$[1].name").value("DSA"));
+                .andExpect(jsonPath("$[1].name").value("DSA"))
+                .andExpect(header().string("ETag", ETAG))
+                .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().doesNotExist(CursorPage.TRUNCATED_HEADER));
+
+        verify(courseService, never()).list();
+    }
+
+    @Test
+    void list_gzip() throws Exception {
+        var catalog = snapshot(course(1, "CS101", "Intro"));
+        when(catalogCache.get()).thenReturn(catalog);
+
+        mvc.perform(get("/api/courses").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", catalog.gzipEtag()))
+                .andExpect(content().bytes(catalog.gzip()));
+    }
+
+    @Test
+    void list_notModified() throws Exception {
+        when(catalogCache.get()).thenReturn(snapshot());
+
+        mvc.perform(get("/api/courses").header("If-None-Match", ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""))
+                .andExpect(header().string("ETag", ETAG));
+    }
+
+    @Test
+    void page_ok() throws Exception {
+        when(courseService.page(null, 1)).thenReturn(new CursorPage<>(List.of(course(1, "CS101", "Intro")), 1L));
+
+        mvc.perform(get("/api/courses").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].code").value("CS101"))
+                .andExpect(jsonPath("$.nextCursor").value(1));
+    }
+
+    @Test
+    void list_truncatedCatalog_isFlagged() throws Exception {
+        when(catalogCache.get()).thenReturn(snapshot(true, course(1, "CS101", "Intro")));
+
+        mvc.perform(get("/api/courses"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.TRUNCATED_HEADER, "true"));
+    }
+
+    @Test
+    void list_sparseFields_bypassesCatalog() throws Exception {
+        when(courseService.list("code")).thenReturn(new CursorPage<>(List.of(Map.of("id", 1L, "code", "CS101")), null));
+
+        mvc.perform(get("/api/courses").param("fields", "code"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].code").value("CS101"))
+                .andExpect(jsonPath("$[0].name").doesNotExist());
+
+        verifyNoInteractions(catalogCache);
+    }
+
+    @Test
+    void page_afterWithoutLimit_usesDefaultLimit() throws Exception {
+        when(courseService.page(1L, null)).thenReturn(new CursorPage<>(List.of(course(2, "CS102", "Algo")), null));
+
+        mvc.perform(get("/api/courses").param("after", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].code").value("CS102"));
+
+        verifyNoInteractions(catalogCache);
+    }
+
+    @Test
+    void getAll_withCursorParams_badRequest() throws Exception {
+        mvc.perform(get("/api/courses").param("ids", "2,1").param("limit", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("ids cannot be combined with after or limit"));
+        mvc.perform(get("/api/courses").param("ids", "2,1").param("after", "1").param("fields", "code"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(courseService, catalogCache);
+    }
+
+    @Test
+    void getAll_byIds() throws Exception {
+        when(courseService.getAll(List.of(2L, 1L)))
+                .thenReturn(new MultiGetResult<>(List.of(course(2, "CS102", "Algo"), course(1, "CS101", "Intro")), List.of()));
+
+        mvc.perform(get("/api/courses").param("ids", "2,1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].code").value("CS102"))
+                .andExpect(jsonPath("$.items[1].code").value("CS101"));
+
+        verifyNoInteractions(catalogCache);
     }
 
     @Test
@@ -110,4 +233,14 @@ class TestCourseController {
                 .andExpect(status().isNoContent())
                 .andExpect(content().string(""));
     }
+
+    @Test
+    void enrollmentCount_ok() throws Exception {
+        when(courseService.enrollmentCount(5L)).thenReturn(new CourseEnrollmentCount(5L, 42));
+
+        mvc.perform(get("/api/courses/5/enrollment-count"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courseId").value(5))
+                .andExpect(jsonPath("$.enrolled").value(42));
+    }
 }
@@ -2,7 +2,14 @@ package com.example.studentmanagement.controller;
 
 import com.example.studentmanagement.domain.Course;
 import com.example.studentmanagement.domain.Enrollment;
+import com.example.studentmanagement.domain.Grade;
+import com.example.studentmanagement.dto.BulkEnrollmentResult;
+import com.example.studentmanagement.dto.BulkEnrollmentResult.Status;
 import com.example.studentmanagement.dto.EnrollmentDto;
+import com.example.studentmanagement.dto.StudentGpa;
+import com.example.studentmanagement.dto.SeatRequestResult;
+import com.example.studentmanagement.dto.StudentCourseDto;
+import com.example.studentmanagement.dto.StudentSetResult;
 import com.example.studentmanagement.service.EnrollmentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -13,7 +20,13 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -38,7 +51,7 @@ class TestEnrollmentController {
         return c;
     }
 
-    private Enrollment enrollmentMock(long studentId, long courseId, Course course, String grade) {
+    private Enrollment enrollmentMock(long studentId, long courseId, Course course, Grade grade) {
         Enrollment e = Mockito.mock(Enrollment.class);
         Object idObj = Mockito.mock(Object.class, Mockito.withSettings().name("EnrollmentId"));
         try {
@@ -76,7 +89,7 @@ class TestEnrollmentController {
     void setGrade_ok() throws Exception {
         EnrollmentDto req = new EnrollmentDto(2L, 3L, "A");
         Course c = course(3L, "CS003", "Algorithms");
-        Enrollment e = enrollmentMock(2L, 3L, c, "A");
+        Enrollment e = enrollmentMock(2L, 3L, c, Grade.A);
         when(service.setGrade(2L, 3L, "A")).thenReturn(e);
 
         mvc.perform(patch("/api/enrollments/grade")
@@ -88,4 +101,85 @@ class TestEnrollmentController {
                 .andExpect(jsonPath("$.grade").value("A"));
     }
 
+    @Test
+    void bulkEnroll_ok() throws Exception {
+        var req = List.of(new EnrollmentDto(1L, 10L, null), new EnrollmentDto(9L, 10L, null));
+        when(service.bulkEnroll(req)).thenReturn(List.of(
+                new BulkEnrollmentResult(1L, 10L, Status.CREATED),
+                new BulkEnrollmentResult(9L, 10L, Status.MISSING_STUDENT)));
+
+        mvc.perform(post("/api/enrollments/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].studentId").value(9))
+                .andExpect(jsonPath("$[1].status").value("MISSING_STUDENT"));
+    }
+
+    @Test
+    void bulkEnrollCourse_mapsStudentIdsToPairs() throws Exception {
+        var pairs = List.of(new EnrollmentDto(1L, 10L, null), new EnrollmentDto(2L, 10L, null));
+        when(service.bulkEnroll(anyList())).thenReturn(List.of(
+                new BulkEnrollmentResult(1L, 10L, Status.CREATED),
+                new BulkEnrollmentResult(2L, 10L, Status.DUPLICATE)));
+
+        mvc.perform(post("/api/enrollments/bulk/course/{courseId}", 10)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].status").value("DUPLICATE"));
+
+        verify(service).bulkEnroll(pairs);
+    }
+
+    @Test
+    void byStudent_returnsProjection() throws Exception {
+        when(service.courseViewByStudentId(5L)).thenReturn(List.of(
+                new StudentCourseDto(100L, "CS100", "Intro", Grade.A),
+                new StudentCourseDto(101L, "CS101", "DSA", null)));
+
+        mvc.perform(get("/api/enrollments/student/5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].courseId").value(100))
+                .andExpect(jsonPath("$[0].grade").value("A"))
+                .andExpect(jsonPath("$[1].code").value("CS101"));
+
+        verify(service).courseViewByStudentId(5L);
+    }
+
+    @Test
+    void enrollOrWaitlist_returnsQueuePosition() throws Exception {
+        when(service.enrollOrWaitlist(2L, 3L))
+                .thenReturn(new SeatRequestResult(2L, 3L, SeatRequestResult.Status.WAITLISTED, 7L));
+
+        mvc.perform(post("/api/enrollments/waitlist")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new EnrollmentDto(2L, 3L, null))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("WAITLISTED"))
+                .andExpect(jsonPath("$.waitlistPosition").value(7));
+    }
+
+    @Test
+    void gpa_ok() throws Exception {
+        when(service.gpa(2L)).thenReturn(new StudentGpa(2L, new BigDecimal("3.65"), 2L));
+
+        mvc.perform(get("/api/enrollments/student/2/gpa"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.gpa").value(3.65))
+                .andExpect(jsonPath("$.gradedCourses").value(2));
+    }
+
+    @Test
+    void students_setAlgebraQuery() throws Exception {
+        when(service.studentsMatching(List.of(1L, 2L), List.of(), List.of(3L), null, 2, false))
+                .thenReturn(new StudentSetResult(5, List.of(10L, 11L), 11L));
+
+        mvc.perform(get("/api/enrollments/students?allOf=1,2&noneOf=3&limit=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(5))
+                .andExpect(jsonPath("$.studentIds[1]").value(11))
+                .andExpect(jsonPath("$.nextCursor").value(11));
+    }
 }
@@ -0,0 +1,175 @@
+package com.example.studentmanagement.controller;
+
+import com.example.studentmanagement.config.SqlStatementBudget;
+import com.example.studentmanagement.config.SqlStatementFilter;
+import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.domain.Student;
+import com.example.studentmanagement.dto.EnrollmentDto;
+import com.example.studentmanagement.repo.CourseRepository;
+import com.example.studentmanagement.repo.StudentRepository;
+import com.example.studentmanagement.service.EnrollmentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.example.studentmanagement.config.SqlStatementBudget.atMostStatements;
+import static com.example.studentmanagement.config.SqlStatementBudget.statements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the JDBC statement count of read endpoints and write flows so N+1 regressions fail here rather than in
+ * production. The Mockito service suites have no DataSource to count against, so budgets live here.
+ */
+@SpringBootTest(properties = "app.scheduling.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class TestStatementBudgets {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private StudentRepository students;
+    @Autowired
+    private CourseRepository courses;
+    @Autowired
+    private EnrollmentService enrollmentService;
+    @Autowired
+    private MeterRegistry registry;
+
+    private List<Long> studentIds;
+    private List<Long> courseIds;
+
+    @BeforeEach
+    void seed() {
+        String run = Long.toString(System.nanoTime());
+        courseIds = IntStream.range(0, 3).mapToObj(i -> {
+            Course c = new Course();
+            c.setCode("SB" + run + i);
+            c.setName("Budget " + i);
+            return courses.save(c).getId();
+        }).toList();
+        studentIds = IntStream.range(0, 5).mapToObj(i -> {
+            Student s = new Student();
+            s.setFirstName("First");
+            s.setLastName("Last");
+            s.setEmail("sb" + run + i + "@x.com");
+            s.setBirthDate(LocalDate.of(2000, 1, 1));
+            return students.save(s).getId();
+        }).toList();
+        studentIds.forEach(s -> courseIds.forEach(c -> enrollmentService.enroll(s, c)));
+    }
+
+    private String ids(List<Long> ids) {
+        return String.join(",", ids.stream().map(String::valueOf).toList());
+    }
+
+    @Test
+    void studentReads_noNPlusOne() throws Exception {
+        // the student row only; enrollments are not part of this representation
+        mvc.perform(get("/api/students/{id}", studentIds.get(0)))
+                .andExpect(status().isOk())
+                .andExpect(statements(1));
+        // enrollments of all listed students come back in one batch-fetch query, not one per student
+        mvc.perform(get("/api/students").param("ids", ids(studentIds)))
+                .andExpect(status().isOk())
+                .andExpect(statements(2));
+        mvc.perform(get("/api/students").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(statements(2));
+        mvc.perform(get("/api/students/{id}/courses", studentIds.get(0)))
+                .andExpect(status().isOk())
+                .andExpect(statements(1));
+        // sparse fieldsets never touch enrollments
+        mvc.perform(get("/api/students").param("ids", ids(studentIds)).param("fields", "firstName,lastName"))
+                .andExpect(status().isOk())
+                .andExpect(statements(1));
+    }
+
+    @Test
+    void enrollmentAndCourseReads() throws Exception {
+        mvc.perform(get("/api/enrollments/student/{id}", studentIds.get(0)))
+                .andExpect(status().isOk())
+                .andExpect(statements(1));
+        mvc.perform(get("/api/enrollments/student/{id}/gpa", studentIds.get(0)))
+                .andExpect(status().isOk())
+                .andExpect(atMostStatements(2));
+        mvc.perform(get("/api/courses").param("ids", ids(courseIds)))
+                .andExpect(status().isOk())
+                .andExpect(statements(1));
+        mvc.perform(get("/api/courses/{id}", courseIds.get(0)))
+                .andExpect(status().isOk())
+                .andExpect(atMostStatements(1));
+        mvc.perform(get("/api/courses"))
+                .andExpect(status().isOk())
+                .andExpect(atMostStatements(2));
+    }
+
+    private Long newStudent() {
+        Student s = new Student();
+        s.setFirstName("First");
+        s.setLastName("Last");
+        s.setEmail("sb-extra" + System.nanoTime() + "@x.com");
+        s.setBirthDate(LocalDate.of(2000, 1, 1));
+        return students.save(s).getId();
+    }
+
+    private List<EnrollmentDto> intoAllCourses(int studentCount) {
+        return IntStream.range(0, studentCount).mapToObj(i -> newStudent())
+                .flatMap(s -> courseIds.stream().map(c -> new EnrollmentDto(s, c, null)))
+                .toList();
+    }
+
+    @Test
+    void enroll_claimAndInsertOnly() {
+        Long id = newStudent();
+
+        assertThat(SqlStatementBudget.count(() -> enrollmentService.enroll(id, courseIds.get(0)))).isEqualTo(2);
+    }
+
+    @Test
+    void bulkEnroll_independentOfPairCount() {
+        List<EnrollmentDto> few = intoAllCourses(1);
+        List<EnrollmentDto> many = intoAllCourses(6);
+
+        // student and course existence, existing pairs, one seat claim per course, one batched insert
+        assertThat(SqlStatementBudget.count(() -> enrollmentService.bulkEnroll(few))).isEqualTo(7);
+        assertThat(SqlStatementBudget.count(() -> enrollmentService.bulkEnroll(many))).isEqualTo(7);
+    }
+
+    @Test
+    void unenrollAndDeleteCourse() throws Exception {
+        // seat release, delete, and an empty waitlist probe
+        mvc.perform(delete("/api/enrollments").param("studentId", studentIds.get(0).toString())
+                        .param("courseId", courseIds.get(0).toString()))
+                .andExpect(status().isOk())
+                .andExpect(statements(3));
+        // code lookup, then set-based deletes of waitlist, enrollments and the course, however many it has
+        mvc.perform(delete("/api/courses/{id}", courseIds.get(1)))
+                .andExpect(status().isNoContent())
+                .andExpect(statements(4));
+    }
+
+    @Test
+    void countsPublishedPerRoute() throws Exception {
+        mvc.perform(get("/api/students/{id}/courses", studentIds.get(0)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlStatementFilter.HEADER));
+
+        assertThat(registry.get("http.server.sql.statements")
+                .tag("route", "GET /api/students/{id}/courses")
+                .summary().count()).isPositive();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.studentmanagement.controller;
+
+import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.domain.Student;
+import com.example.studentmanagement.repo.CourseRepository;
+import com.example.studentmanagement.repo.StudentRepository;
+import com.example.studentmanagement.service.EnrollmentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A 304 is only safe if everything in the body is covered by the ETag; enrollment changes do not touch
+ * students.updated_at, so they must not be part of the student representation.
+ */
+@SpringBootTest(properties = "app.scheduling.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class TestStudentConditionalGet {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private StudentRepository students;
+    @Autowired
+    private CourseRepository courses;
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Test
+    void enrollAfterGet_oldTagStillDescribesTheBody() throws Exception {
+        String run = Long.toString(System.nanoTime());
+        Student s = new Student();
+        s.setFirstName("First");
+        s.setLastName("Last");
+        s.setEmail("etag" + run + "@x.com");
+        s.setBirthDate(LocalDate.of(2000, 1, 1));
+        Long studentId = students.save(s).getId();
+        Course c = new Course();
+        c.setCode("ET" + run);
+        c.setName("Etag");
+        Long courseId = courses.save(c).getId();
+
+        MvcResult before = mvc.perform(get("/api/students/{id}", studentId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enrollments").doesNotExist())
+                .andReturn();
+        String etag = before.getResponse().getHeader("ETag");
+
+        enrollmentService.enroll(studentId, courseId);
+
+        mvc.perform(get("/api/students/{id}", studentId).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        MvcResult after = mvc.perform(get("/api/students/{id}", studentId))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(after.getResponse().getHeader("ETag")).isEqualTo(etag);
+        assertThat(after.getResponse().getContentAsString()).isEqualTo(before.getResponse().getContentAsString());
+        mvc.perform(get("/api/students/{id}/courses", studentId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(courseId));
+    }
+}
@@ -2,6 +2,10 @@ package com.example.studentmanagement.controller;
 
 import com.example.studentmanagement.domain.Course;
 import com.example.studentmanagement.domain.Student;
+import com.example.studentmanagement.dto.CursorPage;
+import com.example.studentmanagement.dto.MultiGetResult;
+import com.example.studentmanagement.dto.StudentImportResult;
+import com.example.studentmanagement.service.StudentImportService;
 import com.example.studentmanagement.service.StudentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
@@ -12,13 +16,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.hasSize;
-import static org.hamcrest.Matchers.isEmptyString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -36,6 +46,8 @@ class TestStudentController {
 
     @MockBean
     private StudentService studentService;
+    @MockBean
+    private StudentImportService importService;
 
 
     private Student student(long id) {
@@ -58,11 +70,12 @@ class TestStudentController {
 
     @Test
     void list_ok() throws Exception {
-        when(studentService.list()).thenReturn(List.of(student(1), student(2)));
+        when(studentService.list()).thenReturn(new CursorPage<>(List.of(student(1), student(2)), null));
 
         mvc.perform(get("/api/students").accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist(CursorPage.TRUNCATED_HEADER))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[1].id").value(2));
@@ -70,6 +83,138 @@ class TestStudentController {
         verify(studentService, times(1)).list();
     }
 
+    @Test
+    void page_ok() throws Exception {
+        when(studentService.page(10L, 2)).thenReturn(new CursorPage<>(List.of(student(11), student(12)), 12L));
+
+        mvc.perform(get("/api/students").param("after", "10").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id").value(11))
+                .andExpect(jsonPath("$.nextCursor").value(12));
+
+        verify(studentService).page(10L, 2);
+        verify(studentService, never()).list();
+    }
+
+    @Test
+    void page_afterWithoutLimit_usesDefaultLimit() throws Exception {
+        when(studentService.page(10L, null)).thenReturn(new CursorPage<>(List.of(student(11)), null));
+
+        mvc.perform(get("/api/students").param("after", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(11));
+
+        verify(studentService, never()).list();
+    }
+
+    @Test
+    void getAll_withCursorParams_badRequest() throws Exception {
+        mvc.perform(get("/api/students").param("ids", "1,2").param("limit", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("ids cannot be combined with after or limit"));
+        mvc.perform(get("/api/students").param("ids", "1,2").param("after", "1"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/students").param("ids", "1,2").param("limit", "1").param("fields", "lastName"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(studentService);
+    }
+
+    @Test
+    void getAll_byIds() throws Exception {
+        when(studentService.getAll(List.of(12L, 11L, 99L)))
+                .thenReturn(new MultiGetResult<>(List.of(student(12), student(11)), List.of(99L)));
+
+        mvc.perform(get("/api/students").param("ids", "12,11,99"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id").value(12))
+                .andExpect(jsonPath("$.missing[0]").value(99));
+
+        verify(studentService, never()).list();
+    }
+
+    @Test
+    void list_cutOffAtTheCap_isFlagged() throws Exception {
+        when(studentService.list()).thenReturn(new CursorPage<>(List.of(student(1), student(2)), 2L));
+
+        mvc.perform(get("/api/students"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.TRUNCATED_HEADER, "true"))
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    void list_sparseFields() throws Exception {
+        when(studentService.list("id,firstName,lastName"))
+                .thenReturn(new CursorPage<>(List.of(Map.of("id", 1L, "firstName", "A", "lastName", "B")), null));
+
+        mvc.perform(get("/api/students").param("fields", "id,firstName,lastName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].firstName").value("A"))
+                .andExpect(jsonPath("$[0].email").doesNotExist());
+
+        verify(studentService, never()).list();
+    }
+
+    @Test
+    void page_sparseFields() throws Exception {
+        when(studentService.page(null, 1, "lastName"))
+                .thenReturn(new CursorPage<>(List.of(Map.of("id", 1L, "lastName", "B")), 1L));
+
+        mvc.perform(get("/api/students").param("limit", "1").param("fields", "lastName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].lastName").value("B"))
+                .andExpect(jsonPath("$.nextCursor").value(1));
+
+        verify(studentService, never()).page(any(), any());
+    }
+
+    @Test
+    void get_sparseFields() throws Exception {
+        when(studentService.get(5L, "email")).thenReturn(Map.of("id", 5L, "email", "a@x.com"));
+
+        mvc.perform(get("/api/students/5").param("fields", "email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("a@x.com"))
+                .andExpect(jsonPath("$.enrollments").doesNotExist())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
+    @Test
+    void lookup_post() throws Exception {
+        when(studentService.getAll(List.of(1L, 2L)))
+                .thenReturn(new MultiGetResult<>(List.of(student(1), student(2)), List.of()));
+
+        mvc.perform(post("/api/students/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.missing", hasSize(0)));
+    }
+
+    @Test
+    void export_streamsNdjson() throws Exception {
+        when(studentService.exportNdjson(any(OutputStream.class))).thenAnswer(inv -> {
+            OutputStream out = inv.getArgument(0);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        MvcResult started = mvc.perform(get("/api/students/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+
+        verify(studentService, never()).list();
+    }
+
     @Test
     void get_ok() throws Exception {
         when(studentService.get(1L)).thenReturn(student(1));
@@ -81,6 +226,38 @@ class TestStudentController {
                 .andExpect(jsonPath("$.email").value("alice@example.com"));
 
         verify(studentService).get(1L);
+        verify(studentService, never()).lastModified(any());
+    }
+
+    @Test
+    void get_notModified() throws Exception {
+        Instant updatedAt = Instant.parse("2024-03-01T10:15:30.123456Z");
+        Student s = student(1);
+        s.setUpdatedAt(updatedAt);
+        when(studentService.get(1L)).thenReturn(s);
+        when(studentService.lastModified(1L)).thenReturn(updatedAt);
+
+        String etag = mvc.perform(get("/api/students/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/api/students/{id}", 1).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(studentService, times(1)).get(1L);
+        verify(studentService).lastModified(1L);
+    }
+
+    @Test
+    void get_staleEtag_returnsBody() throws Exception {
+        when(studentService.lastModified(1L)).thenReturn(Instant.parse("2024-03-02T00:00:00Z"));
+        when(studentService.get(1L)).thenReturn(student(1));
+
+        mvc.perform(get("/api/students/{id}", 1).header("If-None-Match", "\"student-1-0.0\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
     }
 
     @Test
@@ -102,6 +279,23 @@ class TestStudentController {
         assertThat(captor.getValue().getEmail()).isEqualTo("alice@example.com");
     }
 
+    @Test
+    void importCsv_ok() throws Exception {
+        var result = new StudentImportResult(2, 1, 1, 5, 400.0,
+                List.of(new StudentImportResult.RowError(3, "bad", "email: must be a well-formed email address")));
+        when(importService.importCsv(any(InputStream.class), eq(100))).thenReturn(result);
+
+        mvc.perform(post("/api/students/import").param("batchSize", "100")
+                        .contentType("text/csv")
+                        .content("firstName,lastName,email,birthDate\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3));
+
+        verify(importService).importCsv(any(InputStream.class), eq(100));
+    }
+
     @Test
     void update_ok() throws Exception {
         Student body = student(0);
@@ -126,7 +320,7 @@ class TestStudentController {
 
         mvc.perform(delete("/api/students/{id}", 5))
                 .andExpect(status().isNoContent())
-                .andExpect(content().string(isEmptyString()));
+                .andExpect(content().string(emptyString()));
 
         verify(studentService).delete(5L);
     }
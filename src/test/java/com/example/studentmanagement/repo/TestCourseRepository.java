@@ -0,0 +1,113 @@
+package com.example.studentmanagement.repo;
+
+import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.domain.EnrollmentId;
+import com.example.studentmanagement.domain.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class TestCourseRepository {
+
+    @Autowired
+    private CourseRepository courses;
+    @Autowired
+    private EnrollmentRepository enrollments;
+    @Autowired
+    private TestEntityManager em;
+
+    private Course course(String code) {
+        Course c = new Course();
+        c.setCode(code);
+        c.setName("Course " + code);
+        return c;
+    }
+
+    private Student student(String email) {
+        Student s = new Student();
+        s.setFirstName("First");
+        s.setLastName("Last");
+        s.setEmail(email);
+        s.setBirthDate(LocalDate.of(1990, 1, 1));
+        return em.persist(s);
+    }
+
+    private int countOf(Course c) {
+        return courses.findEnrollmentCountById(c.getId()).orElseThrow();
+    }
+
+    @Test
+    void enrollmentCount_defaultsToZeroAndIsNotOverwrittenByEntityFlush() {
+        Course c = courses.saveAndFlush(course("CS201"));
+        assertThat(countOf(c)).isZero();
+
+        courses.adjustEnrollmentCount(c.getId(), 3, Instant.now());
+        c.setName("Renamed");
+        courses.saveAndFlush(c);
+        em.clear();
+
+        assertThat(countOf(c)).isEqualTo(3);
+        assertThat(courses.findEnrollmentCountById(-1L)).isEmpty();
+    }
+
+    @Test
+    void decrementForStudent_thenDriftDetected() {
+        Course a = courses.saveAndFlush(course("CS301"));
+        Course b = courses.saveAndFlush(course("CS302"));
+        Student alice = student("alice@x.com");
+        Student bob = student("bob@x.com");
+        em.flush();
+        enrollments.insertAll(List.of(
+                new EnrollmentId(alice.getId(), a.getId()),
+                new EnrollmentId(alice.getId(), b.getId()),
+                new EnrollmentId(bob.getId(), a.getId())));
+        courses.adjustEnrollmentCount(a.getId(), 2, Instant.now());
+        courses.adjustEnrollmentCount(b.getId(), 1, Instant.now());
+
+        assertThat(courses.decrementEnrollmentCountsForStudent(alice.getId(), Instant.now())).isEqualTo(2);
+        enrollments.deleteByStudentId(alice.getId());
+        assertThat(countOf(a)).isEqualTo(1);
+        assertThat(countOf(b)).isZero();
+        assertThat(courses.findDriftedIds()).isEmpty();
+
+        courses.adjustEnrollmentCount(b.getId(), 5, Instant.now());
+        assertThat(courses.findDriftedIds()).containsExactly(b.getId());
+        assertThat(courses.lockEnrollmentCountById(b.getId())).contains(5);
+        assertThat(enrollments.countByCourseId(b.getId())).isZero();
+        assertThat(courses.setEnrollmentCount(b.getId(), 0, Instant.now())).isEqualTo(1);
+        assertThat(courses.findDriftedIds()).isEmpty();
+        assertThat(countOf(b)).isZero();
+        assertThat(countOf(a)).isEqualTo(1);
+    }
+
+    @Test
+    void claimSeats_stopsAtCapacity() {
+        Course c = course("CS401");
+        c.setCapacity(2);
+        c = courses.saveAndFlush(c);
+        Course open = courses.saveAndFlush(course("CS402"));
+
+        assertThat(courses.claimSeats(c.getId(), 1, Instant.now())).isEqualTo(1);
+        assertThat(courses.claimSeats(c.getId(), 2, Instant.now())).isZero();
+        assertThat(courses.findFreeSeatsById(c.getId())).contains(1);
+        assertThat(courses.claimSeats(c.getId(), 1, Instant.now())).isEqualTo(1);
+        assertThat(courses.claimSeats(c.getId(), 1, Instant.now())).isZero();
+        assertThat(countOf(c)).isEqualTo(2);
+
+        assertThat(courses.claimSeats(open.getId(), 500, Instant.now())).isEqualTo(1);
+        assertThat(courses.findFreeSeatsById(open.getId())).isEmpty();
+        assertThat(courses.claimSeats(-1L, 1, Instant.now())).isZero();
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.studentmanagement.repo;
+
+import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.domain.Enrollment;
+import com.example.studentmanagement.domain.EnrollmentId;
+import com.example.studentmanagement.domain.Grade;
+import com.example.studentmanagement.domain.Student;
+import com.example.studentmanagement.dto.GradeCount;
+import com.example.studentmanagement.dto.StudentCourseDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class TestEnrollmentRepository {
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private EntityManagerFactory emf;
+    @Autowired
+    private EnrollmentRepository enrollments;
+    @Autowired
+    private CourseRepository courses;
+    @Autowired
+    private StudentRepository students;
+
+    private Statistics stats;
+    private Student alice;
+    private Student bob;
+    private Course cs101;
+    private Course cs102;
+
+    private Student student(String email) {
+        Student s = new Student();
+        s.setFirstName("First");
+        s.setLastName("Last");
+        s.setEmail(email);
+        s.setBirthDate(LocalDate.of(1990, 1, 1));
+        return em.persist(s);
+    }
+
+    private Course course(String code) {
+        Course c = new Course();
+        c.setCode(code);
+        c.setName("Course " + code);
+        return em.persist(c);
+    }
+
+    private void enroll(Student s, Course c) {
+        Enrollment e = new Enrollment();
+        e.setId(new EnrollmentId(s.getId(), c.getId()));
+        e.setStudent(s);
+        e.setCourse(c);
+        em.persist(e);
+    }
+
+    @BeforeEach
+    void seed() {
+        alice = student("alice@x.com");
+        bob = student("bob@x.com");
+        cs101 = course("CS101");
+        cs102 = course("CS102");
+        Course cs103 = course("CS103");
+        enroll(alice, cs101);
+        enroll(alice, cs102);
+        enroll(bob, cs101);
+        enroll(bob, cs103);
+        em.flush();
+        em.clear();
+
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+    }
+
+    @Test
+    void findByStudentId_singleStatement() {
+        var out = enrollments.findByStudentId(alice.getId());
+
+        assertThat(out).hasSize(2);
+        assertThat(out).allMatch(e -> e.getId().getStudentId().equals(alice.getId()));
+        assertThat(out).extracting(e -> e.getCourse().getCode()).containsExactlyInAnyOrder("CS101", "CS102");
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(stats.getEntityLoadCount()).isEqualTo(4);
+    }
+
+    @Test
+    void findByCourseId_singleStatement() {
+        var out = enrollments.findByCourseId(cs101.getId());
+
+        assertThat(out).hasSize(2);
+        assertThat(out).allMatch(e -> e.getId().getCourseId().equals(cs101.getId()));
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(stats.getEntityLoadCount()).isEqualTo(3);
+    }
+
+    @Test
+    void findCourseViewByStudentId_projectsWithoutHydrating() {
+        var out = enrollments.findCourseViewByStudentId(alice.getId());
+
+        assertThat(out).extracting(StudentCourseDto::code).containsExactly("CS101", "CS102");
+        assertThat(out).extracting(StudentCourseDto::courseId).containsExactly(cs101.getId(), cs102.getId());
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(stats.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void findByStudentId_unknownStudent() {
+        assertThat(enrollments.findByStudentId(-1L)).isEmpty();
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findExistingIds_returnsOnlyPersistedPairs() {
+        var out = enrollments.findExistingIds(List.of(alice.getId(), bob.getId()), List.of(cs102.getId()));
+
+        assertThat(out).containsExactly(new EnrollmentId(alice.getId(), cs102.getId()));
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void insertAll_batchInsertsRows() {
+        Course cs104 = course("CS104");
+        em.flush();
+
+        var inserted = enrollments.insertAll(List.of(
+                new EnrollmentId(bob.getId(), cs102.getId()),
+                new EnrollmentId(alice.getId(), cs104.getId())));
+
+        assertThat(inserted).hasSize(2);
+        assertThat(enrollments.findByStudentId(bob.getId())).hasSize(3);
+        assertThat(enrollments.count()).isEqualTo(6);
+    }
+
+    @Test
+    void insertAll_skipsDuplicatesAndDanglingIds() {
+        EnrollmentId fresh = new EnrollmentId(bob.getId(), cs102.getId());
+
+        var inserted = enrollments.insertAll(List.of(
+                new EnrollmentId(alice.getId(), cs102.getId()),
+                fresh,
+                new EnrollmentId(-1L, cs102.getId()),
+                new EnrollmentId(bob.getId(), -1L)));
+
+        assertThat(inserted).containsExactly(fresh);
+        assertThat(enrollments.count()).isEqualTo(5);
+    }
+
+    @Test
+    void insertIfAbsent_insertsOnceInOneStatement() {
+        assertThat(enrollments.insertIfAbsent(bob.getId(), cs102.getId())).isEqualTo(1);
+        assertThat(enrollments.insertIfAbsent(bob.getId(), cs102.getId())).isZero();
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(enrollments.existsById(new EnrollmentId(bob.getId(), cs102.getId()))).isTrue();
+    }
+
+    @Test
+    void insertIfAbsent_missingStudentViolatesNamedForeignKey() {
+        assertThatThrownBy(() -> enrollments.insertIfAbsent(-1L, cs101.getId()))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("fk_enroll_student");
+    }
+
+    @Test
+    void insertIfAbsent_missingCourseViolatesNamedForeignKey() {
+        assertThatThrownBy(() -> enrollments.insertIfAbsent(alice.getId(), -1L))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("fk_enroll_course");
+    }
+
+    @Test
+    void deleteByKey_singleStatementWithoutLoading() {
+        assertThat(enrollments.deleteByKey(alice.getId(), cs101.getId())).isEqualTo(1);
+        assertThat(enrollments.deleteByKey(alice.getId(), cs101.getId())).isZero();
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(enrollments.findByStudentId(alice.getId())).hasSize(1);
+    }
+
+    @Test
+    void deleteCourse_twoStatementsRegardlessOfEnrollmentCount() {
+        Course course = em.find(Course.class, cs101.getId());
+        for (int i = 0; i < 50; i++) {
+            enroll(student("s" + i + "@x.com"), course);
+        }
+        em.flush();
+        em.clear();
+        stats.clear();
+
+        assertThat(enrollments.deleteByCourseId(cs101.getId())).isEqualTo(52);
+        assertThat(courses.deleteByKey(cs101.getId())).isEqualTo(1);
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(courses.existsById(cs101.getId())).isFalse();
+        assertThat(enrollments.count()).isEqualTo(2);
+    }
+
+    @Test
+    void deleteStudent_twoStatements() {
+        assertThat(enrollments.deleteByStudentId(alice.getId())).isEqualTo(2);
+        assertThat(students.deleteByKey(alice.getId())).isEqualTo(1);
+        assertThat(students.deleteByKey(alice.getId())).isZero();
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(enrollments.findByStudentId(bob.getId())).hasSize(2);
+    }
+
+    private void grade(Student s, Course c, Grade g) {
+        em.find(Enrollment.class, new EnrollmentId(s.getId(), c.getId())).setGrade(g);
+    }
+
+    @Test
+    void gradeAggregates_runInTheDatabase() {
+        grade(alice, cs101, Grade.A);
+        grade(alice, cs102, Grade.B_PLUS);
+        grade(bob, cs101, Grade.A);
+        em.flush();
+        em.clear();
+        stats.clear();
+
+        var gpa = enrollments.findGpaByStudentId(alice.getId()).orElseThrow();
+        assertThat(gpa.gpa()).isEqualByComparingTo("3.65");
+        assertThat(gpa.gradedCourses()).isEqualTo(2);
+        assertThat(enrollments.findGpaByStudentId(bob.getId()).orElseThrow().gradedCourses()).isEqualTo(1);
+        assertThat(enrollments.findGpaByStudentId(-1L)).isEmpty();
+
+        assertThat(enrollments.findGradeCountsByCourseId(cs101.getId()))
+                .containsExactly(new GradeCount(Grade.A, 2L));
+        assertThat(enrollments.findCourseViewByStudentId(alice.getId())).extracting(StudentCourseDto::grade)
+                .containsExactly(Grade.A, Grade.B_PLUS);
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(5);
+        assertThat(stats.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void unknownStoredGrade_readsAsNoGrade() {
+        em.getEntityManager().createNativeQuery(
+                        "update enrollments set grade = 'excellent' where student_id = :s and course_id = :c")
+                .setParameter("s", alice.getId())
+                .setParameter("c", cs101.getId())
+                .executeUpdate();
+        em.clear();
+
+        assertThat(enrollments.findByStudentId(alice.getId()))
+                .filteredOn(e -> e.getCourse().getId().equals(cs101.getId()))
+                .singleElement()
+                .satisfies(e -> assertThat(e.getGrade()).isNull());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.studentmanagement.repo;
+
+import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.domain.Student;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(FieldProjectionRepository.class)
+class TestFieldProjectionRepository {
+
+    @Autowired
+    private FieldProjectionRepository projections;
+    @Autowired
+    private StudentRepository students;
+    @Autowired
+    private CourseRepository courses;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long student(String email) {
+        Student s = new Student();
+        s.setFirstName("First " + email);
+        s.setLastName("Last");
+        s.setEmail(email);
+        s.setBirthDate(LocalDate.of(1990, 1, 1));
+        return students.save(s).getId();
+    }
+
+    @Test
+    void find_selectsOnlyNamedFieldsInOrder() {
+        Long a = student("a@x.com");
+        Long b = student("b@x.com");
+        Long c = student("c@x.com");
+        entityManager.flush();
+        entityManager.clear();
+
+        var rows = projections.find(Student.class, List.of("id", "lastName", "firstName"), a, null, 10);
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)).containsOnlyKeys("id", "lastName", "firstName");
+        assertThat(rows.get(0).keySet()).containsExactly("id", "lastName", "firstName");
+        assertThat(rows).extracting(r -> r.get("id")).containsExactly(b, c);
+        assertThat(rows.get(0).get("firstName")).isEqualTo("First b@x.com");
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void find_byIdsWithLimit() {
+        Course one = new Course();
+        one.setCode("P101");
+        one.setName("One");
+        one.setCapacity(5);
+        Long id = courses.save(one).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        var rows = projections.find(Course.class, List.of("id", "code", "capacity"), null, List.of(id, -1L), 2);
+
+        assertThat(rows).singleElement()
+                .satisfies(r -> assertThat(r).containsEntry("code", "P101").containsEntry("capacity", 5));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.studentmanagement.repo;
+
+import com.example.studentmanagement.domain.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class TestStudentRepository {
+
+    @Autowired
+    private StudentRepository students;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Student student(String email) {
+        Student s = new Student();
+        s.setFirstName("First");
+        s.setLastName("Last");
+        s.setEmail(email);
+        s.setBirthDate(LocalDate.of(1990, 1, 1));
+        return s;
+    }
+
+    @Test
+    void insertAll_thenFindExistingEmails() {
+        students.save(student("old@x.com"));
+
+        int inserted = students.insertAll(List.of(student("a@x.com"), student("b@x.com")));
+
+        assertThat(inserted).isEqualTo(2);
+        assertThat(students.count()).isEqualTo(3);
+        assertThat(students.findByEmail("b@x.com")).get()
+                .satisfies(s -> assertThat(s.getId()).isNotNull())
+                .satisfies(s -> assertThat(s.getBirthDate()).isEqualTo(LocalDate.of(1990, 1, 1)));
+        assertThat(students.findExistingEmails(List.of("a@x.com", "old@x.com", "new@x.com")))
+                .containsExactlyInAnyOrder("a@x.com", "old@x.com");
+    }
+
+    @Test
+    void insertAll_bindsTimestampsInUtcWhateverTheSessionZone() {
+        Instant at = Instant.parse("2024-03-01T10:15:30Z");
+        Student s = student("tz@x.com");
+        s.setCreatedAt(at);
+        s.setUpdatedAt(at);
+        // the session zone stands in for a non-UTC host; H2 renders zone-less timestamps in it
+        jdbc.execute("SET TIME ZONE 'America/New_York'");
+        try {
+            students.insertAll(List.of(s));
+
+            Student read = students.findByEmail("tz@x.com").orElseThrow();
+            assertThat(read.getCreatedAt()).isEqualTo(at);
+            assertThat(read.getUpdatedAt()).isEqualTo(at);
+        } finally {
+            jdbc.execute("SET TIME ZONE LOCAL");
+        }
+    }
+
+    @Test
+    void findUpdatedAtById_readsVersionColumn() {
+        Student saved = students.saveAndFlush(student("v@x.com"));
+
+        assertThat(students.findUpdatedAtById(saved.getId())).isPresent();
+        assertThat(students.findUpdatedAtById(-1L)).isEmpty();
+    }
+}
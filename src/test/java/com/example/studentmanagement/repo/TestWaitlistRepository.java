@@ -0,0 +1,70 @@
+package com.example.studentmanagement.repo;
+
+import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.domain.Student;
+import com.example.studentmanagement.dto.WaitlistEntryDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class TestWaitlistRepository {
+
+    @Autowired
+    private WaitlistRepository waitlist;
+    @Autowired
+    private TestEntityManager em;
+
+    private Student student(String email) {
+        Student s = new Student();
+        s.setFirstName("First");
+        s.setLastName("Last");
+        s.setEmail(email);
+        s.setBirthDate(LocalDate.of(1990, 1, 1));
+        return em.persist(s);
+    }
+
+    private Course course(String code) {
+        Course c = new Course();
+        c.setCode(code);
+        c.setName("Course " + code);
+        return em.persist(c);
+    }
+
+    @Test
+    void queueIsOrderedByArrival() {
+        Course c = course("CS501");
+        Student a = student("a@x.com");
+        Student b = student("b@x.com");
+        Student d = student("d@x.com");
+        em.flush();
+        Instant t0 = Instant.parse("2026-01-01T09:00:00Z");
+
+        assertThat(waitlist.insertIfAbsent(b.getId(), c.getId(), t0)).isEqualTo(1);
+        assertThat(waitlist.insertIfAbsent(a.getId(), c.getId(), t0.plusSeconds(1))).isEqualTo(1);
+        assertThat(waitlist.insertIfAbsent(d.getId(), c.getId(), t0.plusSeconds(2))).isEqualTo(1);
+        assertThat(waitlist.insertIfAbsent(b.getId(), c.getId(), t0.plusSeconds(3))).isZero();
+
+        assertThat(waitlist.findNextStudentIds(c.getId(), Limit.of(2))).containsExactly(b.getId(), a.getId());
+        assertThat(waitlist.findViewByCourseId(c.getId())).extracting(WaitlistEntryDto::studentId)
+                .containsExactly(b.getId(), a.getId(), d.getId());
+        assertThat(waitlist.findPosition(d.getId(), c.getId())).isEqualTo(3);
+
+        assertThat(waitlist.deleteByKey(b.getId(), c.getId())).isEqualTo(1);
+        assertThat(waitlist.findPosition(d.getId(), c.getId())).isEqualTo(2);
+        assertThat(waitlist.findPosition(b.getId(), c.getId())).isZero();
+
+        assertThat(waitlist.deleteByCourseId(c.getId())).isEqualTo(2);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.repo.CourseRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TestCatalogCache {
+
+    @Mock
+    private CourseRepository courses;
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private CatalogCache cache;
+
+    private Course course(long id, String code) {
+        Course c = new Course();
+        c.setId(id);
+        c.setCode(code);
+        c.setName("N" + id);
+        c.setUpdatedAt(Instant.parse("2024-01-01T00:00:00Z").plusSeconds(id));
+        return c;
+    }
+
+    @BeforeEach
+    void init() {
+        cache = new CatalogCache(courses, mapper, Duration.ofMinutes(1), true, new SimpleMeterRegistry());
+        when(courses.findAllByOrderByIdAsc(Limit.of(CourseService.MAX_LIST_SIZE + 1))).thenReturn(List.of(course(1, "CS101")));
+    }
+
+    @Test
+    void get_buildsOnceThenServesBytes() throws Exception {
+        var first = cache.get();
+        var second = cache.get();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.truncated()).isFalse();
+        assertThat(mapper.readTree(first.json()).get(0).get("code").asText()).isEqualTo("CS101");
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(first.gzip()))) {
+            assertThat(in.readAllBytes()).isEqualTo(first.json());
+        }
+        assertThat(first.gzipEtag()).isEqualTo(first.etag().replaceAll("\"$", "-gzip\""));
+        verify(courses, times(1)).findAllByOrderByIdAsc(any());
+    }
+
+    @Test
+    void etag_isDerivedFromTheServedRows() {
+        when(courses.findAllByOrderByIdAsc(Limit.of(CourseService.MAX_LIST_SIZE + 1)))
+                .thenReturn(List.of(course(1, "CS101"), course(3, "CS103"), course(2, "CS102")));
+
+        assertThat(cache.get().etag())
+                .isEqualTo("\"courses-3-1704067203.0\"");
+    }
+
+    @Test
+    void overTheCap_servesTheFirstRowsAndFlagsTruncation() throws Exception {
+        when(courses.findAllByOrderByIdAsc(Limit.of(CourseService.MAX_LIST_SIZE + 1)))
+                .thenReturn(LongStream.rangeClosed(1, CourseService.MAX_LIST_SIZE + 1)
+                        .mapToObj(id -> course(id, "C" + id)).toList());
+
+        var snapshot = cache.get();
+
+        assertThat(snapshot.truncated()).isTrue();
+        assertThat(mapper.readTree(snapshot.json()).size()).isEqualTo(CourseService.MAX_LIST_SIZE);
+        assertThat(cache.get().etag()).startsWith("\"courses-" + CourseService.MAX_LIST_SIZE + "-");
+    }
+
+    @Test
+    void invalidate_forcesRebuild() {
+        var first = cache.get();
+        cache.invalidate();
+        var second = cache.get();
+
+        assertThat(second).isNotSameAs(first);
+        verify(courses, times(2)).findAllByOrderByIdAsc(any());
+    }
+
+    @Test
+    void expiredSnapshotIsRebuilt() {
+        cache = new CatalogCache(courses, mapper, Duration.ZERO, false, new SimpleMeterRegistry());
+
+        assertThat(cache.get().gzip()).isNull();
+        cache.get();
+
+        verify(courses, times(2)).findAllByOrderByIdAsc(any());
+    }
+
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(courses.findAllByOrderByIdAsc(Limit.of(CourseService.MAX_LIST_SIZE + 1))).thenAnswer(inv -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(course(1, "CS101"));
+        });
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<CatalogCache.Snapshot> first = pool.submit(cache::get);
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<CatalogCache.Snapshot> second = pool.submit(cache::get);
+            release.countDown();
+
+            assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(first.get(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(courses, times(1)).findAllByOrderByIdAsc(any());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.repo.CourseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TestCourseCache {
+
+    @Mock
+    private CourseRepository courses;
+
+    private SimpleMeterRegistry registry;
+    private CourseCache cache;
+
+    private Course course(long id, String code) {
+        Course c = new Course();
+        c.setId(id);
+        c.setCode(code);
+        c.setName("N" + id);
+        return c;
+    }
+
+    @BeforeEach
+    void init() {
+        registry = new SimpleMeterRegistry();
+        cache = new CourseCache(courses, 100, Duration.ofMinutes(10), registry);
+    }
+
+    private double gets(String cache, String result) {
+        return registry.get("cache.gets").tag("cache", cache).tag("result", result).functionCounter().count();
+    }
+
+    @Test
+    void findById_loadsOnceThenHits() {
+        when(courses.findById(1L)).thenReturn(Optional.of(course(1, "CS101")));
+
+        assertThat(cache.findById(1L)).get().extracting(Course::getCode).isEqualTo("CS101");
+        assertThat(cache.findById(1L)).isPresent();
+
+        verify(courses, times(1)).findById(1L);
+        assertThat(gets("courses.byId", "miss")).isEqualTo(1);
+        assertThat(gets("courses.byId", "hit")).isEqualTo(1);
+    }
+
+    @Test
+    void cachesCopiesNotTheLoadedEntity() {
+        Course loaded = course(1, "CS101");
+        loaded.setCapacity(30);
+        loaded.setEnrollmentCount(12);
+        when(courses.findById(1L)).thenReturn(Optional.of(loaded));
+        when(courses.findByCode("CS101")).thenReturn(Optional.of(loaded));
+
+        Course byId = cache.findById(1L).orElseThrow();
+        Course byCode = cache.findByCode("CS101").orElseThrow();
+        loaded.setName("changed in the session");
+
+        assertThat(byId).isNotSameAs(loaded).usingRecursiveComparison().ignoringFields("name", "enrollments")
+                .isEqualTo(loaded);
+        assertThat(byId.getName()).isEqualTo("N1");
+        assertThat(byCode).isNotSameAs(loaded);
+        assertThat(byCode.getName()).isEqualTo("N1");
+    }
+
+    @Test
+    void findById_missingIsNotCached() {
+        when(courses.findById(9L)).thenReturn(Optional.empty());
+
+        assertThat(cache.findById(9L)).isEmpty();
+        assertThat(cache.findById(9L)).isEmpty();
+
+        verify(courses, times(2)).findById(9L);
+    }
+
+    @Test
+    void findByCode_cachesAbsenceUntilEvicted() {
+        when(courses.findByCode("CS200")).thenReturn(Optional.empty()).thenReturn(Optional.of(course(2, "CS200")));
+
+        assertThat(cache.findByCode("CS200")).isEmpty();
+        assertThat(cache.findByCode("CS200")).isEmpty();
+        verify(courses, times(1)).findByCode("CS200");
+
+        cache.evict(2L, "CS200");
+
+        assertThat(cache.findByCode("CS200")).isPresent();
+        verify(courses, times(2)).findByCode("CS200");
+    }
+
+    @Test
+    void evict_dropsIdEntry() {
+        when(courses.findById(1L)).thenReturn(Optional.of(course(1, "CS101")));
+        cache.findById(1L);
+
+        cache.evict(1L, "CS101", null);
+        cache.findById(1L);
+
+        verify(courses, times(2)).findById(1L);
+    }
+}
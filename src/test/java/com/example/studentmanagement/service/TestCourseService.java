@@ -1,23 +1,31 @@
 package com.example.studentmanagement.service;
 
 import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.dto.CursorPage;
 import com.example.studentmanagement.exception.BadRequestException;
 import com.example.studentmanagement.exception.NotFoundException;
 import com.example.studentmanagement.repo.CourseRepository;
+import com.example.studentmanagement.repo.EnrollmentRepository;
+import com.example.studentmanagement.repo.FieldProjectionRepository;
+import com.example.studentmanagement.repo.WaitlistRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -26,6 +34,20 @@ class TestCourseService {
 
     @Mock
     private CourseRepository courseRepository;
+    @Mock
+    private CourseCache courseCache;
+    @Mock
+    private EnrollmentRepository enrollments;
+    @Mock
+    private CatalogCache catalogCache;
+    @Mock
+    private WaitlistRepository waitlist;
+    @Mock
+    private EnrollmentService enrollmentService;
+    @Mock
+    private EnrollmentIndex index;
+    @Mock
+    private FieldProjectionRepository projections;
     @InjectMocks
     private CourseService service;
 
@@ -39,37 +61,88 @@ class TestCourseService {
 
     @BeforeEach
     void init() {
-        Mockito.reset(courseRepository);
+        Mockito.reset(courseRepository, courseCache, enrollments, catalogCache, waitlist, enrollmentService, index, projections);
     }
 
     @Test
     void list_ok() {
-        when(courseRepository.findAll()).thenReturn(List.of(course(1, "CS101", "Intro")));
+        when(courseRepository.findAllByOrderByIdAsc(Limit.of(CourseService.MAX_LIST_SIZE + 1)))
+                .thenReturn(List.of(course(1, "CS101", "Intro")));
         var out = service.list();
-        assertThat(out).hasSize(1);
-        assertThat(out.get(0).getCode()).isEqualTo("CS101");
-        verify(courseRepository).findAll();
+        assertThat(out.items()).hasSize(1);
+        assertThat(out.items().get(0).getCode()).isEqualTo("CS101");
+        assertThat(out.nextCursor()).isNull();
+        verify(courseRepository).findAllByOrderByIdAsc(Limit.of(CourseService.MAX_LIST_SIZE + 1));
+        verify(courseRepository, never()).findAll();
+    }
+
+    @Test
+    void page_afterCursor_hasNextCursor() {
+        when(courseRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(3))).thenReturn(List.of(
+                course(11, "CS111", "A"), course(12, "CS112", "B"), course(13, "CS113", "C")));
+
+        var page = service.page(10L, 2);
+
+        assertThat(page.items()).extracting(Course::getId).containsExactly(11L, 12L);
+        assertThat(page.nextCursor()).isEqualTo(12L);
+    }
+
+    @Test
+    void page_defaultLimit() {
+        when(courseRepository.findAllByOrderByIdAsc(any())).thenReturn(List.of(course(1, "CS101", "Intro")));
+
+        var page = service.page(null, null);
+
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.nextCursor()).isNull();
+        verify(courseRepository).findAllByOrderByIdAsc(Limit.of(CursorPage.DEFAULT_LIMIT + 1));
     }
 
     @Test
     void get_ok() {
-        when(courseRepository.findById(5L)).thenReturn(Optional.of(course(5, "CS105", "Sys")));
+        when(courseCache.findById(5L)).thenReturn(Optional.of(course(5, "CS105", "Sys")));
         var out = service.get(5L);
         assertThat(out.getId()).isEqualTo(5L);
-        verify(courseRepository).findById(5L);
+        verify(courseCache).findById(5L);
+        verify(courseRepository, never()).findById(anyLong());
     }
 
     @Test
     void get_notFound() {
-        when(courseRepository.findById(9L)).thenReturn(Optional.empty());
+        when(courseCache.findById(9L)).thenReturn(Optional.empty());
         assertThrows(NotFoundException.class, () -> service.get(9L));
-        verify(courseRepository).findById(9L);
+        verify(courseCache).findById(9L);
+    }
+
+    @Test
+    void getAll_sparseFields() {
+        List<String> selected = List.of("id", "code");
+        when(projections.find(Course.class, selected, null, List.of(2L, 1L), 2))
+                .thenReturn(List.of(Map.of("id", 1L, "code", "CS101"), Map.of("id", 2L, "code", "CS102")));
+
+        var out = service.getAll(List.of(2L, 1L), "code");
+
+        assertThat(out.items()).extracting(r -> r.get("code")).containsExactly("CS102", "CS101");
+        verifyNoInteractions(courseCache, courseRepository);
+    }
+
+    @Test
+    void getAll_oneQueryInRequestOrder() {
+        when(courseRepository.findAllById(List.of(2L, 9L, 1L)))
+                .thenReturn(List.of(course(1, "CS101", "Intro"), course(2, "CS102", "Algo")));
+
+        var out = service.getAll(List.of(2L, 9L, 1L));
+
+        assertThat(out.items()).extracting(Course::getCode).containsExactly("CS102", "CS101");
+        assertThat(out.missing()).containsExactly(9L);
+        verify(courseRepository).findAllById(any());
+        verifyNoInteractions(courseCache);
     }
 
     @Test
     void create_ok() {
         var body = course(0, "CS200", "Algo");
-        when(courseRepository.findByCode("CS200")).thenReturn(Optional.empty());
+        when(courseCache.findByCode("CS200")).thenReturn(Optional.empty());
         when(courseRepository.save(any(Course.class))).thenAnswer(inv -> {
             Course c = inv.getArgument(0);
             c.setId(11L);
@@ -81,17 +154,20 @@ class TestCourseService {
         assertThat(out.getId()).isEqualTo(11L);
         assertThat(out.getCode()).isEqualTo("CS200");
         assertThat(out.getName()).isEqualTo("Algo");
-        verify(courseRepository).findByCode("CS200");
+        verify(courseCache).findByCode("CS200");
         verify(courseRepository).save(any(Course.class));
+        verify(courseCache).evict(11L, "CS200");
+        verify(catalogCache).invalidate();
     }
 
     @Test
     void create_duplicateCode() {
         var body = course(0, "CS200", "Algo");
-        when(courseRepository.findByCode("CS200")).thenReturn(Optional.of(course(99, "CS200", "X")));
+        when(courseCache.findByCode("CS200")).thenReturn(Optional.of(course(99, "CS200", "X")));
         assertThrows(BadRequestException.class, () -> service.create(body));
-        verify(courseRepository).findByCode("CS200");
+        verify(courseCache).findByCode("CS200");
         verify(courseRepository, never()).save(any());
+        verify(courseCache, never()).evict(any(), any());
     }
 
     @Test
@@ -106,7 +182,32 @@ class TestCourseService {
         assertThat(out.getCode()).isEqualTo("CS300");
         assertThat(out.getName()).isEqualTo("New Name");
         verify(courseRepository).findById(7L);
-        verify(courseRepository, never()).findByCode(anyString());
+        verify(courseCache, never()).findByCode(anyString());
+        verify(courseRepository, never()).save(any());
+        verify(courseCache).evict(7L, "CS300", "CS300");
+        verifyNoInteractions(enrollmentService);
+    }
+
+    @Test
+    void update_raisedCapacityFillsFromWaitlist() {
+        var existing = course(7, "CS300", "Old");
+        existing.setCapacity(30);
+        when(courseRepository.findById(7L)).thenReturn(Optional.of(existing));
+
+        var body = course(0, "CS300", "Old");
+        body.setCapacity(40);
+        var out = service.update(7L, body);
+
+        assertThat(out.getCapacity()).isEqualTo(40);
+        verify(enrollmentService).fillFromWaitlist(7L);
+    }
+
+    @Test
+    void create_negativeCapacity() {
+        var body = course(0, "CS200", "Algo");
+        body.setCapacity(-1);
+        when(courseCache.findByCode("CS200")).thenReturn(Optional.empty());
+        assertThrows(BadRequestException.class, () -> service.create(body));
         verify(courseRepository, never()).save(any());
     }
 
@@ -114,7 +215,7 @@ class TestCourseService {
     void update_ok_changeCode_unique() {
         var existing = course(7, "CS300", "Old");
         when(courseRepository.findById(7L)).thenReturn(Optional.of(existing));
-        when(courseRepository.findByCode("CS301")).thenReturn(Optional.empty());
+        when(courseCache.findByCode("CS301")).thenReturn(Optional.empty());
 
         var body = course(0, "CS301", "Renamed");
         var out = service.update(7L, body);
@@ -122,30 +223,64 @@ class TestCourseService {
         assertThat(out.getCode()).isEqualTo("CS301");
         assertThat(out.getName()).isEqualTo("Renamed");
         verify(courseRepository).findById(7L);
-        verify(courseRepository).findByCode("CS301");
+        verify(courseCache).findByCode("CS301");
         verify(courseRepository, never()).save(any());
+        verify(courseCache).evict(7L, "CS300", "CS301");
+        verify(catalogCache).invalidate();
     }
 
     @Test
     void update_changeCode_duplicate() {
         var existing = course(7, "CS300", "Old");
         when(courseRepository.findById(7L)).thenReturn(Optional.of(existing));
-        when(courseRepository.findByCode("CS300X")).thenReturn(Optional.of(course(8, "CS300X", "Other")));
+        when(courseCache.findByCode("CS300X")).thenReturn(Optional.of(course(8, "CS300X", "Other")));
 
         var body = course(0, "CS300X", "Name");
         assertThrows(BadRequestException.class, () -> service.update(7L, body));
         verify(courseRepository).findById(7L);
-        verify(courseRepository).findByCode("CS300X");
+        verify(courseCache).findByCode("CS300X");
+    }
+
+    @Test
+    void enrollmentCount_ok() {
+        when(courseRepository.findEnrollmentCountById(5L)).thenReturn(Optional.of(42));
+        assertThat(service.enrollmentCount(5L).enrolled()).isEqualTo(42);
+        verify(courseRepository, never()).findById(any());
+    }
+
+    @Test
+    void enrollmentCount_notFound() {
+        when(courseRepository.findEnrollmentCountById(5L)).thenReturn(Optional.empty());
+        assertThrows(NotFoundException.class, () -> service.enrollmentCount(5L));
     }
 
     @Test
     void delete_ok() {
-        var existing = course(12, "CS400", "Compilers");
-        when(courseRepository.findById(12L)).thenReturn(Optional.of(existing));
+        when(courseRepository.findCodeById(12L)).thenReturn(Optional.of("CS400"));
+        when(enrollments.deleteByCourseId(12L)).thenReturn(2000);
+        when(courseRepository.deleteByKey(12L)).thenReturn(1);
 
         service.delete(12L);
 
-        verify(courseRepository).findById(12L);
-        verify(courseRepository).delete(existing);
+        InOrder order = inOrder(waitlist, enrollments, courseRepository);
+        order.verify(waitlist).deleteByCourseId(12L);
+        order.verify(enrollments).deleteByCourseId(12L);
+        order.verify(courseRepository).deleteByKey(12L);
+        verify(index).courseRemoved(12L);
+        verify(courseRepository, never()).findById(any());
+        verify(courseRepository, never()).delete(any());
+        verify(courseCache).evict(12L, "CS400");
+        verify(catalogCache).invalidate();
+    }
+
+    @Test
+    void delete_notFound() {
+        when(courseRepository.findCodeById(12L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> service.delete(12L));
+
+        verifyNoInteractions(enrollments, waitlist);
+        verify(courseRepository, never()).deleteByKey(any());
+        verify(courseCache, never()).evict(any(), any(String[].class));
     }
 }
@@ -0,0 +1,204 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.domain.Student;
+import com.example.studentmanagement.dto.SeatRequestResult;
+import com.example.studentmanagement.exception.BadRequestException;
+import com.example.studentmanagement.repo.CourseRepository;
+import com.example.studentmanagement.repo.EnrollmentRepository;
+import com.example.studentmanagement.repo.StudentRepository;
+import com.example.studentmanagement.repo.WaitlistRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many threads registering for the same course at once, against a real database, with real transactions.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:capacity;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=30000",
+        "app.scheduling.enabled=false"})
+@ActiveProfiles("h2")
+class TestEnrollmentCapacity {
+
+    private static final int THREADS = 64;
+
+    @Autowired
+    private EnrollmentService service;
+    @Autowired
+    private CourseRepository courses;
+    @Autowired
+    private StudentRepository students;
+    @Autowired
+    private EnrollmentRepository enrollments;
+    @Autowired
+    private WaitlistRepository waitlist;
+    @Autowired
+    private EnrollmentIndex index;
+    @Autowired
+    private EnrollmentCountReconciler reconciler;
+    @Autowired
+    private TransactionTemplate tx;
+
+    private Course course(String code, int capacity) {
+        Course c = new Course();
+        c.setCode(code);
+        c.setName("Course " + code);
+        c.setCapacity(capacity);
+        return courses.save(c);
+    }
+
+    private List<Long> students(String prefix, int n) {
+        return students.saveAll(IntStream.range(0, n).mapToObj(i -> {
+            Student s = new Student();
+            s.setFirstName("First");
+            s.setLastName("Last");
+            s.setEmail(prefix + i + "@x.com");
+            s.setBirthDate(LocalDate.of(2000, 1, 1));
+            return s;
+        }).toList()).stream().map(Student::getId).toList();
+    }
+
+    /** Starts every call behind one gate so they hit the course row together. */
+    private <T> List<Future<T>> race(List<Long> ids, Function<Long, T> call) {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch gate = new CountDownLatch(1);
+            List<Callable<T>> tasks = new ArrayList<>();
+            for (Long id : ids) {
+                tasks.add(() -> {
+                    gate.await();
+                    return call.apply(id);
+                });
+            }
+            List<Future<T>> futures = new ArrayList<>();
+            tasks.forEach(t -> futures.add(pool.submit(t)));
+            gate.countDown();
+            return futures;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private long enrolledIn(Course c) {
+        return enrollments.findByCourseId(c.getId()).size();
+    }
+
+    @Test
+    void concurrentEnrollsNeverOverbook() throws Exception {
+        Course c = course("HOT101", 25);
+        List<Long> ids = students("hot", 300);
+
+        int enrolled = 0;
+        int full = 0;
+        for (Future<String> f : race(ids, id -> {
+            try {
+                service.enroll(id, c.getId());
+                return "ok";
+            } catch (BadRequestException ex) {
+                return ex.getMessage();
+            }
+        })) {
+            String outcome = f.get();
+            if (outcome.equals("ok")) {
+                enrolled++;
+            } else {
+                assertThat(outcome).isEqualTo("Course %d is full".formatted(c.getId()));
+                full++;
+            }
+        }
+
+        assertThat(enrolled).isEqualTo(25);
+        assertThat(full).isEqualTo(275);
+        assertThat(enrolledIn(c)).isEqualTo(25);
+        assertThat(courses.findEnrollmentCountById(c.getId())).contains(25);
+        assertThat(index.query(List.of(c.getId()), List.of(), List.of(), null, null, true).count()).isEqualTo(25);
+    }
+
+    @Test
+    void waitlistAbsorbsOverflowAndRefillsFreedSeats() throws Exception {
+        Course c = course("HOT201", 10);
+        List<Long> ids = students("wait", 120);
+
+        List<Long> enrolled = new ArrayList<>();
+        for (Future<SeatRequestResult> f : race(ids, id -> service.enrollOrWaitlist(id, c.getId()))) {
+            SeatRequestResult r = f.get();
+            if (r.status() == SeatRequestResult.Status.ENROLLED) {
+                enrolled.add(r.studentId());
+            }
+        }
+        assertThat(enrolled).hasSize(10);
+        List<Long> queued = waitlist.findViewByCourseId(c.getId()).stream().map(w -> w.studentId()).toList();
+        assertThat(queued).hasSize(110).doesNotContainAnyElementsOf(enrolled);
+
+        for (Future<Boolean> f : race(enrolled, id -> {
+            service.unenroll(id, c.getId());
+            return true;
+        })) {
+            f.get();
+        }
+
+        assertThat(enrolledIn(c)).isEqualTo(10);
+        assertThat(courses.findEnrollmentCountById(c.getId())).contains(10);
+        assertThat(enrollments.findByCourseId(c.getId())).extracting(e -> e.getId().getStudentId())
+                .containsExactlyInAnyOrderElementsOf(queued.subList(0, 10));
+        assertThat(waitlist.findViewByCourseId(c.getId())).hasSize(100);
+        assertThat(index.query(List.of(c.getId()), List.of(), List.of(), null, 100, false).studentIds())
+                .containsExactlyElementsOf(queued.subList(0, 10).stream().sorted().toList());
+    }
+
+    @Test
+    void reconcileDuringEnrollRushNeverOverbooks() throws Exception {
+        Course c = course("HOT301", 20);
+        List<Long> ids = students("recon", 200);
+        ids.subList(0, 5).forEach(id -> service.enroll(id, c.getId()));
+        // stored count too high, so the reconciler has this course to lock and rewrite while claims run
+        tx.executeWithoutResult(s -> courses.setEnrollmentCount(c.getId(), 9, Instant.now()));
+
+        CountDownLatch done = new CountDownLatch(1);
+        ExecutorService background = Executors.newSingleThreadExecutor();
+        Future<Integer> repairs = background.submit(() -> {
+            int total = 0;
+            do {
+                total += reconciler.reconcile();
+            } while (done.getCount() > 0);
+            return total;
+        });
+        try {
+            for (Future<Boolean> f : race(ids.subList(5, ids.size()), id -> {
+                try {
+                    service.enroll(id, c.getId());
+                    return true;
+                } catch (BadRequestException ex) {
+                    return false;
+                }
+            })) {
+                f.get();
+            }
+        } finally {
+            done.countDown();
+            background.shutdown();
+        }
+
+        assertThat(repairs.get()).isPositive();
+        assertThat(enrolledIn(c)).isLessThanOrEqualTo(20);
+        assertThat(courses.findEnrollmentCountById(c.getId())).contains((int) enrolledIn(c));
+        assertThat(reconciler.reconcile()).isZero();
+    }
+}
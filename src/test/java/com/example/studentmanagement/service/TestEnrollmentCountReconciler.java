@@ -0,0 +1,70 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.repo.CourseRepository;
+import com.example.studentmanagement.repo.EnrollmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TestEnrollmentCountReconciler {
+
+    @Mock
+    private CourseRepository courses;
+    @Mock
+    private EnrollmentRepository enrollments;
+    @Mock
+    private CatalogCache catalogCache;
+
+    private SimpleMeterRegistry registry;
+    private EnrollmentCountReconciler reconciler;
+
+    @BeforeEach
+    void init() {
+        registry = new SimpleMeterRegistry();
+        reconciler = new EnrollmentCountReconciler(courses, enrollments, catalogCache, registry);
+    }
+
+    @Test
+    void reconcile_locksThenCountsAndRepairs() {
+        when(courses.findDriftedIds()).thenReturn(List.of(1L, 2L, 3L));
+        when(courses.lockEnrollmentCountById(1L)).thenReturn(Optional.of(5));
+        when(courses.lockEnrollmentCountById(2L)).thenReturn(Optional.of(7));
+        when(courses.lockEnrollmentCountById(3L)).thenReturn(Optional.empty());
+        when(enrollments.countByCourseId(1L)).thenReturn(4L);
+        when(enrollments.countByCourseId(2L)).thenReturn(7L);
+
+        assertThat(reconciler.reconcile()).isEqualTo(1);
+
+        InOrder order = inOrder(courses, enrollments);
+        order.verify(courses).lockEnrollmentCountById(1L);
+        order.verify(enrollments).countByCourseId(1L);
+        order.verify(courses).setEnrollmentCount(eq(1L), eq(4), any());
+        verify(courses, never()).setEnrollmentCount(eq(2L), anyInt(), any());
+        verify(enrollments, never()).countByCourseId(3L);
+        assertThat(registry.get("enrollment.counts.repaired").counter().count()).isEqualTo(1);
+        verify(catalogCache).invalidate();
+    }
+
+    @Test
+    void reconcile_noDrift() {
+        when(courses.findDriftedIds()).thenReturn(List.of());
+
+        assertThat(reconciler.reconcile()).isZero();
+
+        verifyNoInteractions(catalogCache, enrollments);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.domain.EnrollmentId;
+import com.example.studentmanagement.exception.BadRequestException;
+import com.example.studentmanagement.exception.ServiceUnavailableException;
+import com.example.studentmanagement.repo.EnrollmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TestEnrollmentIndex {
+
+    private final EnrollmentRepository enrollments = mock(EnrollmentRepository.class);
+    private EnrollmentIndex index;
+
+    private static EnrollmentId id(long studentId, long courseId) {
+        return new EnrollmentId(studentId, courseId);
+    }
+
+    @BeforeEach
+    void build() {
+        // course 1: students 1..6, course 2: 4..9, course 3: 5 and 6
+        when(enrollments.streamAllIds()).thenReturn(Stream.of(
+                id(1, 1), id(2, 1), id(3, 1), id(4, 1), id(5, 1), id(6, 1),
+                id(4, 2), id(5, 2), id(6, 2), id(7, 2), id(8, 2), id(9, 2),
+                id(5, 3), id(6, 3)));
+        index = new EnrollmentIndex(enrollments, new SimpleMeterRegistry());
+        index.rebuild();
+    }
+
+    private List<Long> ids(List<Long> allOf, List<Long> anyOf, List<Long> noneOf) {
+        return index.query(allOf, anyOf, noneOf, null, 100, false).studentIds();
+    }
+
+    @Test
+    void andOrAndNot() {
+        assertThat(ids(List.of(1L, 2L), List.of(), List.of())).containsExactly(4L, 5L, 6L);
+        assertThat(ids(List.of(1L, 2L), List.of(), List.of(3L))).containsExactly(4L);
+        assertThat(ids(List.of(), List.of(1L, 2L), List.of(3L))).containsExactly(1L, 2L, 3L, 4L, 7L, 8L, 9L);
+        assertThat(ids(List.of(3L), List.of(2L, 99L), List.of())).containsExactly(5L, 6L);
+        assertThat(ids(List.of(1L, 99L), List.of(), List.of())).isEmpty();
+        assertThat(index.query(List.of(2L), List.of(), List.of(), null, null, true).count()).isEqualTo(6);
+    }
+
+    @Test
+    void keysetPaging() {
+        var first = index.query(List.of(), List.of(1L, 2L), List.of(), null, 4, false);
+        assertThat(first.count()).isEqualTo(9);
+        assertThat(first.studentIds()).containsExactly(1L, 2L, 3L, 4L);
+        var second = index.query(List.of(), List.of(1L, 2L), List.of(), first.nextCursor(), 4, false);
+        assertThat(second.studentIds()).containsExactly(5L, 6L, 7L, 8L);
+        var last = index.query(List.of(), List.of(1L, 2L), List.of(), second.nextCursor(), 4, false);
+        assertThat(last.studentIds()).containsExactly(9L);
+        assertThat(last.nextCursor()).isNull();
+    }
+
+    @Test
+    void updatesApplyAfterCommitOnly() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.added(42L, 3L);
+            index.removed(5L, 3L);
+            assertThat(ids(List.of(3L), List.of(), List.of())).containsExactly(5L, 6L);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(ids(List.of(3L), List.of(), List.of())).containsExactly(6L, 42L);
+
+        index.studentRemoved(6L, List.of(1L, 2L, 3L));
+        index.courseRemoved(2L);
+        assertThat(ids(List.of(3L), List.of(), List.of())).containsExactly(42L);
+        assertThat(ids(List.of(), List.of(2L), List.of())).isEmpty();
+    }
+
+    @Test
+    void changesDuringRebuildAreReplayed() {
+        when(enrollments.streamAllIds()).thenReturn(Stream.of(id(1, 1), id(2, 1))
+                .peek(id -> {
+                    if (id.getStudentId() == 2L) {
+                        index.added(50L, 1L);
+                        index.removed(1L, 1L);
+                    }
+                }));
+        index.rebuild();
+        assertThat(ids(List.of(1L), List.of(), List.of())).containsExactly(2L, 50L);
+    }
+
+    @Test
+    void rejectsBadQueriesAndAnswersOnlyWhenBuilt() {
+        assertThrows(BadRequestException.class, () -> index.query(List.of(), List.of(), List.of(1L), null, 10, false));
+        var fresh = new EnrollmentIndex(enrollments, new SimpleMeterRegistry());
+        assertThrows(ServiceUnavailableException.class,
+                () -> fresh.query(List.of(1L), List.of(), List.of(), null, 10, false));
+    }
+}
@@ -3,26 +3,48 @@ package com.example.studentmanagement.service;
 import com.example.studentmanagement.domain.Course;
 import com.example.studentmanagement.domain.Enrollment;
 import com.example.studentmanagement.domain.EnrollmentId;
+import com.example.studentmanagement.domain.Grade;
 import com.example.studentmanagement.domain.Student;
+import com.example.studentmanagement.dto.BulkEnrollmentResult;
+import com.example.studentmanagement.dto.BulkEnrollmentResult.Status;
+import com.example.studentmanagement.dto.EnrollmentDto;
+import com.example.studentmanagement.dto.GradeCount;
+import com.example.studentmanagement.dto.SeatRequestResult;
+import com.example.studentmanagement.dto.StudentCourseDto;
+import com.example.studentmanagement.dto.StudentGpa;
+import com.example.studentmanagement.dto.StudentSetResult;
 import com.example.studentmanagement.exception.BadRequestException;
 import com.example.studentmanagement.exception.NotFoundException;
 import com.example.studentmanagement.repo.CourseRepository;
 import com.example.studentmanagement.repo.EnrollmentRepository;
 import com.example.studentmanagement.repo.StudentRepository;
+import com.example.studentmanagement.repo.WaitlistRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -35,6 +57,12 @@ class TestEnrollmentService {
     private StudentRepository students;
     @Mock
     private CourseRepository courses;
+    @Mock
+    private CourseCache courseCache;
+    @Mock
+    private WaitlistRepository waitlist;
+    @Mock
+    private EnrollmentIndex index;
 
     @InjectMocks
     private EnrollmentService service;
@@ -56,7 +84,7 @@ class TestEnrollmentService {
         return c;
     }
 
-    private Enrollment enrollment(long studentId, long courseId, String grade) {
+    private Enrollment enrollment(long studentId, long courseId, Grade grade) {
         Enrollment e = new Enrollment();
         e.setId(new EnrollmentId(studentId, courseId));
         e.setStudent(student(studentId, "A", "B", "a@b.com"));
@@ -67,12 +95,12 @@ class TestEnrollmentService {
 
     @BeforeEach
     void resetAll() {
-        Mockito.reset(enrollments, students, courses);
+        Mockito.reset(enrollments, students, courses, courseCache, waitlist, index);
     }
 
     @Test
     void list_ok() {
-        when(enrollments.findAll()).thenReturn(List.of(enrollment(1, 100, "A"), enrollment(2, 101, "B")));
+        when(enrollments.findAll()).thenReturn(List.of(enrollment(1, 100, Grade.A), enrollment(2, 101, Grade.B)));
         var out = service.list();
         assertThat(out).hasSize(2);
         verify(enrollments).findAll();
@@ -80,65 +108,145 @@ class TestEnrollmentService {
 
     @Test
     void listByStudentId_ok() {
-        when(enrollments.findAll()).thenReturn(List.of(enrollment(5, 100, "A"), enrollment(6, 101, "B"), enrollment(5, 102, null)));
+        when(enrollments.findByStudentId(5L)).thenReturn(List.of(enrollment(5, 100, Grade.A), enrollment(5, 102, null)));
         var out = service.listByStudentId(5L);
         assertThat(out).hasSize(2);
         assertThat(out).allMatch(e -> e.getId().getStudentId().equals(5L));
-        verify(enrollments).findAll();
+        verify(enrollments).findByStudentId(5L);
+        verify(enrollments, never()).findAll();
+    }
+
+    @Test
+    void courseViewByStudentId_usesProjection() {
+        when(enrollments.findCourseViewByStudentId(5L))
+                .thenReturn(List.of(new StudentCourseDto(100L, "CS100", "Intro", Grade.A)));
+        var out = service.courseViewByStudentId(5L);
+        assertThat(out).extracting(StudentCourseDto::code).containsExactly("CS100");
+        verify(enrollments).findCourseViewByStudentId(5L);
+        verify(enrollments, never()).findByStudentId(any());
     }
 
     @Test
     void listByCourseId_ok() {
-        when(enrollments.findAll()).thenReturn(List.of(enrollment(5, 200, "A"), enrollment(6, 201, "B"), enrollment(7, 200, null)));
+        when(enrollments.findByCourseId(200L)).thenReturn(List.of(enrollment(5, 200, Grade.A), enrollment(7, 200, null)));
         var out = service.listByCourseId(200L);
         assertThat(out).hasSize(2);
         assertThat(out).allMatch(e -> e.getId().getCourseId().equals(200L));
-        verify(enrollments).findAll();
+        verify(enrollments).findByCourseId(200L);
+        verify(enrollments, never()).findAll();
+    }
+
+    private static DataIntegrityViolationException fkViolation(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("insert violates foreign key", new SQLException("fk"), constraint));
     }
 
     @Test
     void enroll_ok() {
-        when(students.findById(2L)).thenReturn(Optional.of(student(2, "A", "S", "a@b.com")));
-        when(courses.findById(3L)).thenReturn(Optional.of(course(3, "CS003", "Algo")));
-        when(enrollments.existsById(any(EnrollmentId.class))).thenReturn(false);
-        when(enrollments.save(any(Enrollment.class))).thenAnswer(inv -> inv.getArgument(0, Enrollment.class));
+        when(courses.claimSeats(eq(3L), eq(1), any())).thenReturn(1);
+        when(enrollments.insertIfAbsent(2L, 3L)).thenReturn(1);
 
         var e = service.enroll(2L, 3L);
 
         assertThat(e.getId().getStudentId()).isEqualTo(2L);
         assertThat(e.getId().getCourseId()).isEqualTo(3L);
-        verify(students).findById(2L);
-        verify(courses).findById(3L);
-        verify(enrollments).existsById(any(EnrollmentId.class));
-        verify(enrollments).save(any(Enrollment.class));
+        InOrder order = inOrder(courses, enrollments);
+        order.verify(courses).claimSeats(eq(3L), eq(1), any());
+        order.verify(enrollments).insertIfAbsent(2L, 3L);
+        verify(index).added(2L, 3L);
+        verify(courses, never()).adjustEnrollmentCount(any(), anyInt(), any());
+        verify(courseCache).evict(3L);
+        verify(students, never()).findById(anyLong());
+        verify(courses, never()).findById(anyLong());
+        verify(enrollments, never()).existsById(any());
+        verify(enrollments, never()).save(any());
     }
 
     @Test
     void enroll_studentNotFound() {
-        when(students.findById(9L)).thenReturn(Optional.empty());
-        assertThrows(NotFoundException.class, () -> service.enroll(9L, 3L));
-        verify(students).findById(9L);
-        verify(courses, never()).findById(anyLong());
-        verify(enrollments, never()).save(any());
+        when(courses.claimSeats(eq(3L), eq(1), any())).thenReturn(1);
+        when(enrollments.insertIfAbsent(9L, 3L)).thenThrow(fkViolation("fk_enroll_student"));
+        var ex = assertThrows(NotFoundException.class, () -> service.enroll(9L, 3L));
+        assertThat(ex.getMessage()).isEqualTo("Student 9 not found");
+        verify(courseCache, never()).evict(any());
     }
 
     @Test
     void enroll_courseNotFound() {
-        when(students.findById(2L)).thenReturn(Optional.of(student(2, "A", "S", "a@b.com")));
-        when(courses.findById(99L)).thenReturn(Optional.empty());
-        assertThrows(NotFoundException.class, () -> service.enroll(2L, 99L));
-        verify(students).findById(2L);
-        verify(courses).findById(99L);
-        verify(enrollments, never()).save(any());
+        when(courses.findEnrollmentCountById(99L)).thenReturn(Optional.empty());
+        var ex = assertThrows(NotFoundException.class, () -> service.enroll(2L, 99L));
+        assertThat(ex.getMessage()).isEqualTo("Course 99 not found");
+        verify(enrollments, never()).insertIfAbsent(any(), any());
+    }
+
+    @Test
+    void enroll_courseFull() {
+        when(courses.findEnrollmentCountById(3L)).thenReturn(Optional.of(30));
+        var ex = assertThrows(BadRequestException.class, () -> service.enroll(2L, 3L));
+        assertThat(ex.getMessage()).isEqualTo("Course 3 is full");
+        verify(enrollments).existsById(new EnrollmentId(2L, 3L));
+        verify(enrollments, never()).insertIfAbsent(any(), any());
+    }
+
+    @Test
+    void enroll_fullCourseAlreadyEnrolled() {
+        when(courses.findEnrollmentCountById(3L)).thenReturn(Optional.of(30));
+        when(enrollments.existsById(new EnrollmentId(2L, 3L))).thenReturn(true);
+        var ex = assertThrows(BadRequestException.class, () -> service.enroll(2L, 3L));
+        assertThat(ex.getMessage()).isEqualTo("Student already enrolled in course");
+    }
+
+    @Test
+    void enroll_otherIntegrityViolationPropagates() {
+        when(courses.claimSeats(eq(3L), eq(1), any())).thenReturn(1);
+        when(enrollments.insertIfAbsent(2L, 3L)).thenThrow(fkViolation("some_check"));
+        assertThrows(DataIntegrityViolationException.class, () -> service.enroll(2L, 3L));
     }
 
     @Test
     void enroll_duplicate() {
-        when(students.findById(2L)).thenReturn(Optional.of(student(2, "A", "S", "a@b.com")));
-        when(courses.findById(3L)).thenReturn(Optional.of(course(3, "CS003", "Algo")));
-        when(enrollments.existsById(any(EnrollmentId.class))).thenReturn(true);
-        assertThrows(BadRequestException.class, () -> service.enroll(2L, 3L));
-        verify(enrollments, never()).save(any());
+        when(courses.claimSeats(eq(3L), eq(1), any())).thenReturn(1);
+        when(enrollments.insertIfAbsent(2L, 3L)).thenReturn(0);
+        var ex = assertThrows(BadRequestException.class, () -> service.enroll(2L, 3L));
+        assertThat(ex.getMessage()).isEqualTo("Student already enrolled in course");
+    }
+
+    @Test
+    void enrollOrWaitlist_seatFree() {
+        when(courses.claimSeats(eq(3L), eq(1), any())).thenReturn(1);
+        when(enrollments.insertIfAbsent(2L, 3L)).thenReturn(1);
+
+        var out = service.enrollOrWaitlist(2L, 3L);
+
+        assertThat(out.status()).isEqualTo(SeatRequestResult.Status.ENROLLED);
+        verifyNoInteractions(waitlist);
+    }
+
+    @Test
+    void enrollOrWaitlist_fullCourseQueues() {
+        when(courses.findEnrollmentCountById(3L)).thenReturn(Optional.of(30));
+        when(waitlist.findPosition(2L, 3L)).thenReturn(4L);
+
+        var out = service.enrollOrWaitlist(2L, 3L);
+
+        assertThat(out.status()).isEqualTo(SeatRequestResult.Status.WAITLISTED);
+        assertThat(out.waitlistPosition()).isEqualTo(4L);
+        verify(waitlist).insertIfAbsent(eq(2L), eq(3L), any());
+        verify(enrollments, never()).insertIfAbsent(any(), any());
+    }
+
+    @Test
+    void enrollOrWaitlist_studentNotFound() {
+        when(courses.findEnrollmentCountById(3L)).thenReturn(Optional.of(30));
+        when(waitlist.insertIfAbsent(eq(9L), eq(3L), any())).thenThrow(fkViolation("fk_waitlist_student"));
+        var ex = assertThrows(NotFoundException.class, () -> service.enrollOrWaitlist(9L, 3L));
+        assertThat(ex.getMessage()).isEqualTo("Student 9 not found");
+    }
+
+    @Test
+    void leaveWaitlist_notFound() {
+        assertThrows(NotFoundException.class, () -> service.leaveWaitlist(2L, 3L));
+        verify(waitlist).deleteByKey(2L, 3L);
     }
 
     @Test
@@ -146,14 +254,67 @@ class TestEnrollmentService {
         var existing = enrollment(2, 3, null);
         when(enrollments.findById(any(EnrollmentId.class))).thenReturn(Optional.of(existing));
 
-        var out = service.setGrade(2L, 3L, "A");
+        var out = service.setGrade(2L, 3L, " a- ");
 
         assertThat(out.getId().getStudentId()).isEqualTo(2L);
         assertThat(out.getId().getCourseId()).isEqualTo(3L);
-        assertThat(out.getGrade()).isEqualTo("A");
+        assertThat(out.getGrade()).isEqualTo(Grade.A_MINUS);
+        assertThat(out.getGradePoints()).isEqualByComparingTo("3.7");
         verify(enrollments).findById(any(EnrollmentId.class));
     }
 
+    @Test
+    void setGrade_unknownGradeRejectedBeforeLookup() {
+        var ex = assertThrows(BadRequestException.class, () -> service.setGrade(2L, 3L, "excellent"));
+        assertThat(ex.getMessage()).isEqualTo("Unknown grade 'excellent'");
+        verifyNoInteractions(enrollments);
+    }
+
+    @Test
+    void gpa_notFoundWhenStudentMissing() {
+        when(enrollments.findGpaByStudentId(5L)).thenReturn(Optional.empty());
+        when(students.existsById(5L)).thenReturn(false);
+        assertThrows(NotFoundException.class, () -> service.gpa(5L));
+    }
+
+    @Test
+    void gpa_nullWhenNothingGraded() {
+        when(enrollments.findGpaByStudentId(5L)).thenReturn(Optional.empty());
+        when(students.existsById(5L)).thenReturn(true);
+        var out = service.gpa(5L);
+        assertThat(out.gpa()).isNull();
+        assertThat(out.gradedCourses()).isZero();
+    }
+
+    @Test
+    void gradeDistribution_ordersByScaleAndWeightsAverage() {
+        when(enrollments.findGradeCountsByCourseId(3L)).thenReturn(List.of(
+                new GradeCount(Grade.C, 1L), new GradeCount(Grade.A, 2L), new GradeCount(Grade.B_PLUS, 1L)));
+
+        var out = service.gradeDistribution(3L);
+
+        assertThat(out.grades()).extracting(GradeCount::grade).containsExactly(Grade.A, Grade.B_PLUS, Grade.C);
+        assertThat(out.graded()).isEqualTo(4);
+        assertThat(out.average()).isEqualTo(new BigDecimal("3.33"));
+        verify(courses, never()).findEnrollmentCountById(any());
+    }
+
+    @Test
+    void gradeDistribution_courseNotFound() {
+        when(enrollments.findGradeCountsByCourseId(3L)).thenReturn(List.of());
+        when(courses.findEnrollmentCountById(3L)).thenReturn(Optional.empty());
+        assertThrows(NotFoundException.class, () -> service.gradeDistribution(3L));
+    }
+
+    @Test
+    void studentsMatching_answeredFromIndex() {
+        var result = new StudentSetResult(2, List.of(4L, 7L), null);
+        when(index.query(List.of(1L), List.of(), List.of(2L), null, 10, false)).thenReturn(result);
+
+        assertThat(service.studentsMatching(List.of(1L), List.of(), List.of(2L), null, 10, false)).isSameAs(result);
+        verifyNoInteractions(enrollments, courses);
+    }
+
     @Test
     void setGrade_notFound() {
         when(enrollments.findById(any(EnrollmentId.class))).thenReturn(Optional.empty());
@@ -163,20 +324,166 @@ class TestEnrollmentService {
 
     @Test
     void unenroll_ok() {
-        var existing = enrollment(7, 8, "B");
-        when(enrollments.findById(any(EnrollmentId.class))).thenReturn(Optional.of(existing));
+        when(enrollments.deleteByKey(7L, 8L)).thenReturn(1);
 
         service.unenroll(7L, 8L);
 
-        verify(enrollments).findById(any(EnrollmentId.class));
-        verify(enrollments).delete(existing);
+        InOrder order = inOrder(courses, enrollments);
+        order.verify(courses).adjustEnrollmentCount(eq(8L), eq(-1), any());
+        order.verify(enrollments).deleteByKey(7L, 8L);
+        verify(index).removed(7L, 8L);
+        verify(courses, never()).claimSeats(any(), anyInt(), any());
+        verify(enrollments, never()).findById(any());
+        verify(enrollments, never()).delete(any());
+    }
+
+    @Test
+    void unenroll_promotesHeadOfWaitlist() {
+        when(enrollments.deleteByKey(7L, 8L)).thenReturn(1);
+        when(waitlist.findNextStudentIds(eq(8L), any())).thenReturn(List.of(20L, 21L)).thenReturn(List.of(21L));
+        when(courses.claimSeats(eq(8L), eq(1), any())).thenReturn(1, 0);
+        when(waitlist.deleteByKey(20L, 8L)).thenReturn(1);
+        when(enrollments.insertIfAbsent(20L, 8L)).thenReturn(1);
+
+        service.unenroll(7L, 8L);
+
+        verify(enrollments).insertIfAbsent(20L, 8L);
+        verify(waitlist, never()).deleteByKey(21L, 8L);
+        verify(courses, times(1)).adjustEnrollmentCount(any(), anyInt(), any());
+    }
+
+    @Test
+    void fillFromWaitlist_skipsEntriesThatVanished() {
+        when(waitlist.findNextStudentIds(eq(8L), any())).thenReturn(List.of(20L, 21L)).thenReturn(List.of());
+        when(courses.claimSeats(eq(8L), eq(1), any())).thenReturn(1);
+        when(waitlist.deleteByKey(20L, 8L)).thenReturn(0);
+        when(waitlist.deleteByKey(21L, 8L)).thenReturn(1);
+        when(enrollments.insertIfAbsent(21L, 8L)).thenReturn(1);
+
+        assertThat(service.fillFromWaitlist(8L)).isEqualTo(1);
+
+        verify(courses).adjustEnrollmentCount(eq(8L), eq(-1), any());
+        verify(enrollments, never()).insertIfAbsent(20L, 8L);
+    }
+
+    @Test
+    void fillFromWaitlist_studentDeletedConcurrently_isNotFound() {
+        when(waitlist.findNextStudentIds(eq(8L), any())).thenReturn(List.of(20L));
+        when(courses.claimSeats(eq(8L), eq(1), any())).thenReturn(1);
+        when(waitlist.deleteByKey(20L, 8L)).thenReturn(1);
+        when(enrollments.insertIfAbsent(20L, 8L)).thenThrow(fkViolation("FK_ENROLL_STUDENT"));
+
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.fillFromWaitlist(8L));
+
+        assertThat(ex.getMessage()).isEqualTo("Student 20 not found");
+        verifyNoInteractions(index);
     }
 
     @Test
     void unenroll_notFound() {
-        when(enrollments.findById(any(EnrollmentId.class))).thenReturn(Optional.empty());
+        when(enrollments.deleteByKey(7L, 8L)).thenReturn(0);
         assertThrows(NotFoundException.class, () -> service.unenroll(7L, 8L));
-        verify(enrollments).findById(any(EnrollmentId.class));
-        verify(enrollments, never()).delete(any());
+        verify(enrollments).deleteByKey(7L, 8L);
+        verifyNoInteractions(index);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkEnroll_reportsOutcomePerPair() {
+        when(students.findExistingIds(anyCollection())).thenReturn(List.of(1L, 2L));
+        when(courses.findExistingIds(anyCollection())).thenReturn(List.of(10L));
+        when(enrollments.findExistingIds(anyCollection(), anyCollection()))
+                .thenReturn(List.of(new EnrollmentId(2L, 10L)));
+        when(courses.claimSeats(eq(10L), eq(1), any())).thenReturn(1);
+        when(enrollments.insertAll(anyCollection())).thenAnswer(inv -> new LinkedHashSet<>(inv.getArgument(0, Collection.class)));
+
+        var out = service.bulkEnroll(List.of(
+                new EnrollmentDto(1L, 10L, null),
+                new EnrollmentDto(2L, 10L, null),
+                new EnrollmentDto(3L, 10L, null),
+                new EnrollmentDto(1L, 11L, null),
+                new EnrollmentDto(1L, 10L, null)));
+
+        assertThat(out).extracting(BulkEnrollmentResult::status).containsExactly(
+                Status.CREATED, Status.DUPLICATE, Status.MISSING_STUDENT, Status.MISSING_COURSE, Status.DUPLICATE);
+        ArgumentCaptor<Collection<EnrollmentId>> inserted = ArgumentCaptor.forClass(Collection.class);
+        verify(enrollments).insertAll(inserted.capture());
+        assertThat(inserted.getValue()).containsExactly(new EnrollmentId(1L, 10L));
+        verify(courses, times(1)).claimSeats(any(), anyInt(), any());
+        verify(students, never()).findById(anyLong());
+        verify(enrollments, never()).existsById(any());
+        verify(enrollments, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkEnroll_fillsRemainingSeatsThenReportsCourseFull() {
+        when(students.findExistingIds(anyCollection())).thenReturn(List.of(1L, 2L, 3L));
+        when(courses.findExistingIds(anyCollection())).thenReturn(List.of(10L));
+        when(courses.claimSeats(eq(10L), eq(3), any())).thenReturn(0);
+        when(courses.findFreeSeatsById(10L)).thenReturn(Optional.of(2));
+        when(courses.claimSeats(eq(10L), eq(2), any())).thenReturn(1);
+        when(enrollments.insertAll(anyCollection())).thenAnswer(inv -> new LinkedHashSet<>(inv.getArgument(0, Collection.class)));
+
+        var out = service.bulkEnroll(List.of(
+                new EnrollmentDto(1L, 10L, null),
+                new EnrollmentDto(2L, 10L, null),
+                new EnrollmentDto(3L, 10L, null)));
+
+        assertThat(out).extracting(BulkEnrollmentResult::status)
+                .containsExactly(Status.CREATED, Status.CREATED, Status.COURSE_FULL);
+        ArgumentCaptor<Collection<EnrollmentId>> inserted = ArgumentCaptor.forClass(Collection.class);
+        verify(enrollments).insertAll(inserted.capture());
+        assertThat(inserted.getValue()).containsExactly(new EnrollmentId(1L, 10L), new EnrollmentId(2L, 10L));
+    }
+
+    @Test
+    void bulkEnroll_rowsChangedConcurrentlyReleaseTheirSeats() {
+        when(students.findExistingIds(anyCollection())).thenReturn(List.of(1L, 2L, 3L)).thenReturn(List.of(1L, 3L));
+        when(courses.findExistingIds(anyCollection())).thenReturn(List.of(10L));
+        when(courses.claimSeats(eq(10L), eq(3), any())).thenReturn(1);
+        when(enrollments.insertAll(anyCollection())).thenReturn(Set.of(new EnrollmentId(1L, 10L)));
+
+        var out = service.bulkEnroll(List.of(
+                new EnrollmentDto(1L, 10L, null),
+                new EnrollmentDto(2L, 10L, null),
+                new EnrollmentDto(3L, 10L, null)));
+
+        assertThat(out).extracting(BulkEnrollmentResult::status)
+                .containsExactly(Status.CREATED, Status.MISSING_STUDENT, Status.DUPLICATE);
+        verify(courses).adjustEnrollmentCount(eq(10L), eq(-2), any());
+        verify(index).addedAll(Set.of(new EnrollmentId(1L, 10L)));
+    }
+
+        @Test
+    void removeAllForStudent_decrementsThenDeletes() {
+        when(enrollments.findCourseIdsByStudentId(6L)).thenReturn(List.of(10L, 11L));
+        when(enrollments.deleteByStudentId(6L)).thenReturn(2);
+
+        assertThat(service.removeAllForStudent(6L)).isEqualTo(2);
+
+        InOrder order = inOrder(courses, enrollments);
+        order.verify(courses).decrementEnrollmentCountsForStudent(eq(6L), any());
+        order.verify(enrollments).deleteByStudentId(6L);
+        verify(courseCache).evict(10L);
+        verify(courseCache).evict(11L);
+    }
+
+    @Test
+    void removeAllForStudent_noEnrollments() {
+        when(enrollments.findCourseIdsByStudentId(6L)).thenReturn(List.of());
+
+        assertThat(service.removeAllForStudent(6L)).isZero();
+
+        verifyNoInteractions(courses, courseCache);
+        verify(enrollments, never()).deleteByStudentId(any());
+        verify(waitlist).deleteByStudentId(6L);
+    }
+
+    @Test
+    void bulkEnroll_tooLarge() {
+        var pairs = Collections.nCopies(EnrollmentService.MAX_BULK_SIZE + 1, new EnrollmentDto(1L, 1L, null));
+        assertThrows(BadRequestException.class, () -> service.bulkEnroll(pairs));
+        verifyNoInteractions(students, courses, enrollments);
     }
 }
@@ -0,0 +1,135 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.domain.Course;
+import com.example.studentmanagement.domain.Student;
+import com.example.studentmanagement.repo.CourseRepository;
+import com.example.studentmanagement.repo.EnrollmentRepository;
+import com.example.studentmanagement.repo.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Course second-level and query cache, observed through Hibernate statistics. Every repository call runs in
+ * its own transaction and session, as it would across requests.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "app.scheduling.enabled=false")
+@ActiveProfiles("h2")
+class TestSecondLevelCache {
+
+    @Autowired
+    private CourseRepository courses;
+    @Autowired
+    private StudentRepository students;
+    @Autowired
+    private EnrollmentRepository enrollments;
+    @Autowired
+    private EnrollmentService enrollmentService;
+    @Autowired
+    private EntityManagerFactory emf;
+    @Autowired
+    private TransactionTemplate tx;
+
+    private Statistics stats;
+
+    @BeforeEach
+    void stats() {
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private Course course(String code) {
+        Course c = new Course();
+        c.setCode(code);
+        c.setName("Course " + code);
+        c.setCapacity(10);
+        return courses.save(c);
+    }
+
+    private List<Long> students(String prefix, int n) {
+        return students.saveAll(IntStream.range(0, n).mapToObj(i -> {
+            Student s = new Student();
+            s.setFirstName("First");
+            s.setLastName("Last");
+            s.setEmail(prefix + i + "@x.com");
+            s.setBirthDate(LocalDate.of(2000, 1, 1));
+            return s;
+        }).toList()).stream().map(Student::getId).toList();
+    }
+
+    private long courseLoads() {
+        return stats.getEntityStatistics(Course.class.getName()).getLoadCount();
+    }
+
+    @Test
+    void findByCode_servedFromQueryCache() {
+        course("L2-101");
+        stats.clear();
+
+        assertThat(courses.findByCode("L2-101")).isPresent();
+        assertThat(courses.findByCode("L2-101")).isPresent();
+        assertThat(courses.findByCode("L2-101")).isPresent();
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(stats.getCacheRegionStatistics("course-by-code").getHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void courseLoadsFromCacheUntilSeatCountChanges() {
+        Course c = course("L2-201");
+        Long student = students("l2enroll", 1).get(0);
+        courses.findById(c.getId());
+        stats.clear();
+
+        assertThat(courses.findById(c.getId())).isPresent();
+        assertThat(stats.getPrepareStatementCount()).isZero();
+        assertThat(courseLoads()).isZero();
+
+        // seat claims are bulk updates of the courses table, which evict the whole course region
+        enrollmentService.enroll(student, c.getId());
+        stats.clear();
+
+        assertThat(courses.findById(c.getId())).get().extracting(Course::getEnrollmentCount).isEqualTo(1);
+        assertThat(courseLoads()).isEqualTo(1);
+    }
+
+    @Test
+    void enrollmentListResolvesCoursesFromCache() {
+        Course c = course("L2-301");
+        List<Long> ids = students("l2list", 2);
+        ids.forEach(id -> enrollmentService.enroll(id, c.getId()));
+        courses.findAll();
+        stats.clear();
+
+        assertThat(enrollmentService.list()).isNotEmpty();
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(courseLoads()).isZero();
+        assertThat(stats.getCacheRegionStatistics("course").getHitCount()).isPositive();
+    }
+
+    @Test
+    void nativeEnrollmentInsertKeepsCourseRegion() {
+        Course c = course("L2-401");
+        Long student = students("l2native", 1).get(0);
+        courses.findById(c.getId());
+
+        tx.executeWithoutResult(s -> enrollments.insertIfAbsent(student, c.getId()));
+        stats.clear();
+        courses.findById(c.getId());
+
+        assertThat(stats.getPrepareStatementCount()).isZero();
+        assertThat(stats.getCacheRegionStatistics("course").getHitCount()).isEqualTo(1);
+    }
+}
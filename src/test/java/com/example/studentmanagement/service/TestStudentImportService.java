@@ -0,0 +1,165 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.domain.Student;
+import com.example.studentmanagement.dto.StudentImportResult.RowError;
+import com.example.studentmanagement.exception.BadRequestException;
+import com.example.studentmanagement.repo.StudentRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TestStudentImportService {
+
+    @Mock
+    private StudentRepository students;
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private StudentImportService service;
+
+    private static InputStream csv(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @BeforeEach
+    void resetAll() {
+        Mockito.reset(students);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importCsv_insertsValidRowsInBatches() throws Exception {
+        when(students.findExistingEmails(anyCollection())).thenReturn(List.of());
+        when(students.insertAll(anyCollection())).thenAnswer(inv -> inv.getArgument(0, Collection.class).size());
+
+        var out = service.importCsv(csv(
+                "email,firstName,lastName,birthDate",
+                "a@x.com,Ann,Lee,1990-01-01",
+                "b@x.com,\"Bo, Jr\",Kim,1991-02-02",
+                "",
+                "c@x.com,Cy,Ng,1992-03-03"), 2);
+
+        assertThat(out.rows()).isEqualTo(3);
+        assertThat(out.imported()).isEqualTo(3);
+        assertThat(out.rejected()).isZero();
+        ArgumentCaptor<Collection<Student>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(students, times(2)).insertAll(batches.capture());
+        assertThat(batches.getAllValues().get(0)).extracting(Student::getFirstName).containsExactly("Ann", "Bo, Jr");
+        assertThat(batches.getAllValues().get(1)).extracting(Student::getEmail).containsExactly("c@x.com");
+        verify(students, times(2)).findExistingEmails(anyCollection());
+        verify(students, never()).findByEmail(any());
+        verify(students, never()).save(any());
+    }
+
+    @Test
+    void importCsv_reportsRowErrors() throws Exception {
+        when(students.findExistingEmails(anyCollection())).thenReturn(List.of("taken@x.com"));
+        when(students.insertAll(anyCollection())).thenReturn(1);
+
+        var out = service.importCsv(csv(
+                "firstName,lastName,email,birthDate",
+                "Ann,Lee,a@x.com,1990-01-01",
+                "Bad,Mail,not-an-email,1990-01-01",
+                "No,Date,nodate@x.com,",
+                "Bad,Date,baddate@x.com,01/02/1990",
+                "Dup,File,a@x.com,1990-01-01",
+                "Dup,Db,taken@x.com,1990-01-01"), null);
+
+        assertThat(out.rows()).isEqualTo(6);
+        assertThat(out.imported()).isEqualTo(1);
+        assertThat(out.rejected()).isEqualTo(5);
+        assertThat(out.errors()).extracting(RowError::line).containsExactlyInAnyOrder(3, 4, 5, 6, 7);
+        assertThat(out.errors()).filteredOn(e -> e.line() == 3).first()
+                .extracting(RowError::message).asString().startsWith("email:");
+        assertThat(out.errors()).filteredOn(e -> e.line() == 4).first()
+                .extracting(RowError::message).asString().startsWith("birthDate:");
+        assertThat(out.errors()).filteredOn(e -> e.line() == 6).first()
+                .extracting(RowError::message).isEqualTo("Duplicate email in file");
+        assertThat(out.errors()).filteredOn(e -> e.line() == 7).first()
+                .extracting(RowError::message).isEqualTo("Email already exists");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importCsv_rejectedBatchIsRetriedRowByRow() throws Exception {
+        when(students.findExistingEmails(anyCollection())).thenReturn(List.of());
+        when(students.insertAll(anyCollection())).thenAnswer(inv -> {
+            Collection<Student> rows = inv.getArgument(0, Collection.class);
+            if (rows.stream().anyMatch(s -> s.getEmail().equals("raced@x.com"))) {
+                throw new DataIntegrityViolationException("uk_student_email");
+            }
+            return rows.size();
+        });
+
+        var out = service.importCsv(csv(
+                "firstName,lastName,email,birthDate",
+                "Ann,Lee,a@x.com,1990-01-01",
+                "Race,Lost,raced@x.com,1990-01-01",
+                "Cy,Ng,c@x.com,1990-01-01",
+                "Di,Po,d@x.com,1990-01-01"), 3);
+
+        assertThat(out.imported()).isEqualTo(3);
+        assertThat(out.rejected()).isEqualTo(1);
+        assertThat(out.errors()).containsExactly(new RowError(3, "raced@x.com", "Email already exists"));
+        verify(students, times(5)).insertAll(anyCollection());
+    }
+
+    @Test
+    void importCsv_capsReportedErrorsButCountsAll() throws Exception {
+        String[] lines = new String[StudentImportService.MAX_REPORTED_ERRORS + 6];
+        lines[0] = "firstName,lastName,email,birthDate";
+        for (int i = 1; i < lines.length; i++) {
+            lines[i] = "Bad,Mail,not-an-email-" + i + ",1990-01-01";
+        }
+
+        var out = service.importCsv(csv(lines), null);
+
+        assertThat(out.rows()).isEqualTo(StudentImportService.MAX_REPORTED_ERRORS + 5);
+        assertThat(out.rejected()).isEqualTo(StudentImportService.MAX_REPORTED_ERRORS + 5);
+        assertThat(out.errors()).hasSize(StudentImportService.MAX_REPORTED_ERRORS);
+        assertThat(out.errors().get(0).line()).isEqualTo(2);
+        verify(students, never()).insertAll(anyCollection());
+    }
+
+    @Test
+    void importCsv_missingColumn() {
+        assertThrows(BadRequestException.class, () -> service.importCsv(csv("firstName,lastName,email"), null));
+        verifyNoInteractions(students);
+    }
+
+    @Test
+    void importCsv_invalidBatchSize() {
+        assertThrows(BadRequestException.class, () -> service.importCsv(csv("x"), 0));
+        assertThrows(BadRequestException.class,
+                () -> service.importCsv(csv("x"), StudentImportService.MAX_BATCH_SIZE + 1));
+        verifyNoInteractions(students);
+    }
+
+    @Test
+    void parseLine_handlesQuotes() {
+        assertThat(StudentImportService.parseLine("a,\"b,c\",\"say \"\"hi\"\"\",")).containsExactly("a", "b,c", "say \"hi\"", "");
+    }
+}
@@ -4,22 +4,34 @@ import com.example.studentmanagement.domain.Course;
 import com.example.studentmanagement.domain.Enrollment;
 import com.example.studentmanagement.domain.EnrollmentId;
 import com.example.studentmanagement.domain.Student;
+import com.example.studentmanagement.dto.CursorPage;
 import com.example.studentmanagement.exception.BadRequestException;
 import com.example.studentmanagement.exception.NotFoundException;
-import com.example.studentmanagement.repo.CourseRepository;
 import com.example.studentmanagement.repo.EnrollmentRepository;
+import com.example.studentmanagement.repo.FieldProjectionRepository;
 import com.example.studentmanagement.repo.StudentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -33,9 +45,17 @@ class TestStudentService {
     @Mock
     private StudentRepository students;
     @Mock
-    private CourseRepository courses;
+    private CourseCache courseCache;
     @Mock
     private EnrollmentRepository enrollments;
+    @Mock
+    private EnrollmentService enrollmentService;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private FieldProjectionRepository projections;
+    @Spy
+    private ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
 
     @InjectMocks
     private StudentService service;
@@ -68,15 +88,89 @@ class TestStudentService {
 
     @BeforeEach
     void resetAll() {
-        Mockito.reset(students, courses, enrollments);
+        Mockito.reset(students, courseCache, enrollments, enrollmentService, entityManager, projections);
     }
 
     @Test
     void list_ok() {
-        when(students.findAll()).thenReturn(List.of(student(1, "a@x.com"), student(2, "b@x.com")));
+        when(students.findAllByOrderByIdAsc(Limit.of(StudentService.MAX_LIST_SIZE + 1)))
+                .thenReturn(List.of(student(1, "a@x.com"), student(2, "b@x.com")));
         var out = service.list();
-        assertThat(out).hasSize(2);
-        verify(students).findAll();
+        assertThat(out.items()).hasSize(2);
+        assertThat(out.nextCursor()).isNull();
+        verify(students).findAllByOrderByIdAsc(Limit.of(StudentService.MAX_LIST_SIZE + 1));
+        verify(students, never()).findAll();
+    }
+
+    @Test
+    void list_overTheCap_isCutOffWithACursor() {
+        when(students.findAllByOrderByIdAsc(Limit.of(StudentService.MAX_LIST_SIZE + 1)))
+                .thenReturn(LongStream.rangeClosed(1, StudentService.MAX_LIST_SIZE + 1)
+                        .mapToObj(id -> student(id, id + "@x.com")).toList());
+
+        var out = service.list();
+
+        assertThat(out.items()).hasSize(StudentService.MAX_LIST_SIZE);
+        assertThat(out.nextCursor()).isEqualTo((long) StudentService.MAX_LIST_SIZE);
+    }
+
+    @Test
+    void page_firstPage_hasNextCursor() {
+        when(students.findAllByOrderByIdAsc(Limit.of(3)))
+                .thenReturn(List.of(student(1, "a@x.com"), student(2, "b@x.com"), student(3, "c@x.com")));
+
+        var page = service.page(null, 2);
+
+        assertThat(page.items()).extracting(Student::getId).containsExactly(1L, 2L);
+        assertThat(page.nextCursor()).isEqualTo(2L);
+    }
+
+    @Test
+    void page_afterCursor_lastPage() {
+        when(students.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3)))
+                .thenReturn(List.of(student(3, "c@x.com")));
+
+        var page = service.page(2L, 2);
+
+        assertThat(page.items()).extracting(Student::getId).containsExactly(3L);
+        assertThat(page.nextCursor()).isNull();
+        verify(students, never()).findAllByOrderByIdAsc(any());
+    }
+
+    @Test
+    void page_limitClamped() {
+        when(students.findAllByOrderByIdAsc(any())).thenReturn(List.of());
+
+        service.page(null, 100_000);
+
+        verify(students).findAllByOrderByIdAsc(Limit.of(CursorPage.MAX_LIMIT + 1));
+    }
+
+    @Test
+    void page_invalidLimit() {
+        assertThrows(BadRequestException.class, () -> service.page(null, 0));
+        verifyNoInteractions(students);
+    }
+
+    @Test
+    void exportNdjson_writesOneLinePerStudentAndDetaches() throws Exception {
+        var a = student(1, "a@x.com");
+        var b = student(2, "b@x.com");
+        a.getEnrollments().add(enrollment(1, 100));
+        when(students.streamAll()).thenReturn(Stream.of(a, b));
+        var out = new ByteArrayOutputStream();
+
+        long count = service.exportNdjson(out);
+
+        assertThat(count).isEqualTo(2);
+        var lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(mapper.readTree(lines[0]).get("email").asText()).isEqualTo("a@x.com");
+        assertThat(mapper.readTree(lines[0]).has("enrollments")).isFalse();
+        assertThat(mapper.readTree(lines[1]).get("id").asLong()).isEqualTo(2L);
+        verify(entityManager).detach(a);
+        verify(entityManager).detach(b);
+        verify(students, never()).findAll();
     }
 
     @Test
@@ -94,6 +188,77 @@ class TestStudentService {
         verify(students).findById(9L);
     }
 
+    @Test
+    void getAll_requestOrderAndMissing() {
+        when(students.findAllById(List.of(3L, 1L, 7L)))
+                .thenReturn(List.of(student(1, "a@x.com"), student(3, "c@x.com")));
+
+        var out = service.getAll(List.of(3L, 1L, 3L, 7L));
+
+        assertThat(out.items()).extracting(Student::getId).containsExactly(3L, 1L);
+        assertThat(out.missing()).containsExactly(7L);
+        verify(students).findAllById(any());
+    }
+
+    @Test
+    void getAll_rejectsEmptyAndOversized() {
+        assertThrows(BadRequestException.class, () -> service.getAll(List.of()));
+        List<Long> tooMany = LongStream.rangeClosed(1, StudentService.MAX_LIST_SIZE + 1).boxed().toList();
+        assertThrows(BadRequestException.class, () -> service.getAll(tooMany));
+        verifyNoInteractions(students);
+    }
+
+    @Test
+    void list_sparseFields_idFirstAndDeduplicated() {
+        List<String> selected = List.of("id", "firstName", "lastName");
+        when(projections.find(Student.class, selected, null, null, StudentService.MAX_LIST_SIZE + 1))
+                .thenReturn(List.of(Map.of("id", 1L, "firstName", "A", "lastName", "B")));
+
+        var out = service.list(" firstName,lastName,,id,firstName");
+
+        assertThat(out.items()).hasSize(1);
+        verify(projections).find(Student.class, selected, null, null, StudentService.MAX_LIST_SIZE + 1);
+        verify(students, never()).findAllByOrderByIdAsc(any());
+    }
+
+    @Test
+    void list_sparseFields_unknownField() {
+        var ex = assertThrows(BadRequestException.class, () -> service.list("id,enrollments"));
+        assertThat(ex.getMessage()).contains("enrollments");
+        verifyNoInteractions(projections);
+    }
+
+    @Test
+    void page_sparseFields_cursorFromIdColumn() {
+        when(projections.find(Student.class, List.of("id", "email"), 4L, null, 3)).thenReturn(List.of(
+                Map.of("id", 5L, "email", "a@x.com"), Map.of("id", 6L, "email", "b@x.com"), Map.of("id", 7L, "email", "c@x.com")));
+
+        var page = service.page(4L, 2, "email");
+
+        assertThat(page.items()).hasSize(2);
+        assertThat(page.nextCursor()).isEqualTo(6L);
+    }
+
+    @Test
+    void get_sparseFields_notFound() {
+        when(projections.find(Student.class, List.of("id"), null, List.of(9L), 1)).thenReturn(List.of());
+        assertThrows(NotFoundException.class, () -> service.get(9L, ""));
+    }
+
+    @Test
+    void lastModified_ok() {
+        var ts = Instant.parse("2024-01-01T00:00:00Z");
+        when(students.findUpdatedAtById(5L)).thenReturn(Optional.of(ts));
+        assertThat(service.lastModified(5L)).isEqualTo(ts);
+        verify(students, never()).findById(any());
+    }
+
+    @Test
+    void lastModified_notFound() {
+        when(students.findUpdatedAtById(9L)).thenReturn(Optional.empty());
+        assertThrows(NotFoundException.class, () -> service.lastModified(9L));
+    }
+
     @Test
     void create_duplicateEmail() {
         var body = student(0, "dup@x.com");
@@ -157,70 +322,62 @@ class TestStudentService {
 
     @Test
     void delete_ok() {
-        var existing = student(6, "d@x.com");
-        when(students.findById(6L)).thenReturn(Optional.of(existing));
+        when(enrollmentService.removeAllForStudent(6L)).thenReturn(4);
+        when(students.deleteByKey(6L)).thenReturn(1);
 
         service.delete(6L);
 
-        verify(students).findById(6L);
-        verify(students).delete(existing);
+        InOrder order = inOrder(enrollmentService, students);
+        order.verify(enrollmentService).removeAllForStudent(6L);
+        order.verify(students).deleteByKey(6L);
+        verify(students, never()).findById(any());
+        verify(students, never()).delete(any());
     }
 
     @Test
-    void enroll_ok() {
-        var s = student(2, "s@x.com");
+    void delete_notFound() {
+        when(students.deleteByKey(6L)).thenReturn(0);
+        assertThrows(NotFoundException.class, () -> service.delete(6L));
+    }
+
+    @Test
+    void enroll_delegatesAndAttachesCachedCourse() {
         var c = course(3, "CS003", "Algo");
-        when(students.findById(2L)).thenReturn(Optional.of(s));
-        when(courses.findById(3L)).thenReturn(Optional.of(c));
-        when(enrollments.existsById(any(EnrollmentId.class))).thenReturn(false);
-        when(enrollments.save(any(Enrollment.class))).thenAnswer(inv -> inv.getArgument(0, Enrollment.class));
+        var inserted = new Enrollment();
+        inserted.setId(new EnrollmentId(2L, 3L));
+        when(enrollmentService.enroll(2L, 3L)).thenReturn(inserted);
+        when(courseCache.findById(3L)).thenReturn(Optional.of(c));
 
         var e = service.enroll(2L, 3L);
 
         assertThat(e.getId().getStudentId()).isEqualTo(2L);
         assertThat(e.getId().getCourseId()).isEqualTo(3L);
-        verify(students).findById(2L);
-        verify(courses).findById(3L);
-        verify(enrollments).existsById(any(EnrollmentId.class));
-        verify(enrollments).save(any(Enrollment.class));
-    }
-
-    @Test
-    void enroll_courseNotFound() {
-        when(students.findById(2L)).thenReturn(Optional.of(student(2, "s@x.com")));
-        when(courses.findById(99L)).thenReturn(Optional.empty());
-        assertThrows(NotFoundException.class, () -> service.enroll(2L, 99L));
-        verify(students).findById(2L);
-        verify(courses).findById(99L);
+        assertThat(e.getCourse()).isSameAs(c);
+        verify(enrollmentService).enroll(2L, 3L);
+        verify(students, never()).findById(any());
         verify(enrollments, never()).save(any());
     }
 
     @Test
     void enroll_duplicate() {
-        when(students.findById(2L)).thenReturn(Optional.of(student(2, "s@x.com")));
-        when(courses.findById(3L)).thenReturn(Optional.of(course(3, "CS003", "Algo")));
-        when(enrollments.existsById(any(EnrollmentId.class))).thenReturn(true);
+        when(enrollmentService.enroll(2L, 3L)).thenThrow(new BadRequestException("Student already enrolled in course"));
         assertThrows(BadRequestException.class, () -> service.enroll(2L, 3L));
-        verify(enrollments, never()).save(any());
+        verify(courseCache, never()).findById(any());
     }
 
     @Test
-    void unenroll_ok() {
-        var existing = enrollment(7, 8);
-        when(enrollments.findById(any(EnrollmentId.class))).thenReturn(Optional.of(existing));
-
+    void unenroll_delegates() {
         service.unenroll(7L, 8L);
 
-        verify(enrollments).findById(any(EnrollmentId.class));
-        verify(enrollments).delete(existing);
+        verify(enrollmentService).unenroll(7L, 8L);
+        verify(enrollments, never()).findById(any());
+        verify(enrollments, never()).delete(any());
     }
 
     @Test
     void unenroll_notFound() {
-        when(enrollments.findById(any(EnrollmentId.class))).thenReturn(Optional.empty());
+        doThrow(new NotFoundException("Enrollment not found")).when(enrollmentService).unenroll(7L, 8L);
         assertThrows(NotFoundException.class, () -> service.unenroll(7L, 8L));
-        verify(enrollments).findById(any(EnrollmentId.class));
-        verify(enrollments, never()).delete(any());
     }
 
     @Test